@@ -0,0 +1,64 @@
+package com.ine.development.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ine.development.common.dto.ApiResponse;
+import com.ine.development.models.User;
+import com.ine.development.models.dto.UserView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la serialización con Jackson de `ApiResponse<List<User>>` y de `ApiResponse<List<UserView>>`
+ * (lo que devuelven hoy los endpoints de lectura) con distintos tamaños de lista.
+ * El `ObjectMapper` se configura como el de Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private ApiResponse<List<User>> users;
+    private ApiResponse<List<UserView>> views;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        List<User> userList = new ArrayList<>(size);
+        List<UserView> viewList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setName("usuario" + i);
+            user.setEmail("usuario" + i + "@ine.gob.gt");
+            user.setPhone("12345678");
+            user.setPassword("{argon2id}$argon2id$v=19$m=16384,t=3,p=1$c2FsdA$aGFzaA");
+            user.setStatus(1);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            userList.add(user);
+            viewList.add(new UserView(user.getId(), user.getName(), user.getEmail(), user.getPhone(), 1, now, now, 0));
+        }
+        users = ApiResponse.ok("Usuarios obtenidos correctamente.", userList);
+        views = ApiResponse.ok("Usuarios obtenidos correctamente.", viewList);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws Exception {
+        return mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeViews() throws Exception {
+        return mapper.writeValueAsBytes(views);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ine.development.benchmarks;
+
+import com.ine.development.components.JwtAuthFilter;
+import com.ine.development.models.User;
+import com.ine.development.repositories.CacheInvalidationRepository;
+import com.ine.development.repositories.UserRepository;
+import com.ine.development.services.CacheInvalidationBus;
+import com.ine.development.services.JwtService;
+import com.ine.development.services.PrincipalCacheService;
+import com.ine.development.services.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mide `JwtAuthFilter` sobre una petición autenticada, con el repositorio de usuarios simulado.
+ * Compara el modo con base de datos (principal desde la caché de principales) con el modo sin estado
+ * (principal desde los claims), ambos con la caché de tokens verificados activa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    private JwtAuthFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        User user = new User();
+        user.setId(42L);
+        user.setName("test");
+        user.setEmail("test@ine.gob.gt");
+        user.setStatus(1);
+
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findUncachedById(anyLong())).thenReturn(Optional.of(user));
+
+        JwtService jwtService = new JwtService(SECRET, 3_600_000L, 10_000, stateless, new SimpleMeterRegistry());
+        CacheInvalidationBus invalidationBus = new CacheInvalidationBus(
+                mock(CacheInvalidationRepository.class), new SimpleMeterRegistry(), false, 10_000, 600_000, 1000, 100);
+        PrincipalCacheService principalCache = new PrincipalCacheService(
+                repository, invalidationBus, new SimpleMeterRegistry(), 10_000, 300);
+        TokenRevocationService revocationService = new TokenRevocationService(repository, stateless);
+        filter = new JwtAuthFilter(jwtService, principalCache, revocationService, new SimpleMeterRegistry());
+        authorization = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
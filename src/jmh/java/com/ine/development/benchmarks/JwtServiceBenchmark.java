@@ -0,0 +1,53 @@
+package com.ine.development.benchmarks;
+
+import com.ine.development.models.User;
+import com.ine.development.services.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la emisión de tokens con `JwtService.generateToken` y compara `extractSubject` con la caché
+ * de tokens verificados desactivada (cada llamada decodifica y verifica la firma) y activada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtService cold;
+    private JwtService cached;
+    private String token;
+    private User user;
+
+    @Setup
+    public void setup() {
+        cold = new JwtService(SECRET, 3_600_000L, 0, false, new SimpleMeterRegistry());
+        cached = new JwtService(SECRET, 3_600_000L, 10_000, false, new SimpleMeterRegistry());
+        token = cached.generateToken("42", Map.of("username", "test", "email", "test@ine.gob.gt"));
+        user = new User();
+        user.setId(42L);
+        user.setName("test");
+        user.setEmail("test@ine.gob.gt");
+        user.setStatus(1);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractSubjectCold() {
+        return cold.extractSubject(token);
+    }
+
+    @Benchmark
+    public String extractSubjectCached() {
+        return cached.extractSubject(token);
+    }
+}
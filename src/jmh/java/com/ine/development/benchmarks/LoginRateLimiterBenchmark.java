@@ -0,0 +1,75 @@
+package com.ine.development.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ine.development.common.TokenBucketLimiter;
+import com.ine.development.components.LoginRateLimitFilter;
+import com.ine.development.services.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el costo del limitador de inicios de sesión: `TokenBucketLimiter.tryAcquire` sobre una
+ * clave compartida por todos los hilos (máxima contención en el CAS) y sobre claves repartidas
+ * entre muchas IPs, y `LoginRateLimitFilter` completo sobre una petición de login.
+ * Los límites son altos para medir la ruta de token concedido; `rejected` mide la ruta de rechazo.
+ * A 100k peticiones por segundo el presupuesto por petición es de 10 µs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class LoginRateLimiterBenchmark {
+
+    private static final int KEYS = 100_000;
+
+    private TokenBucketLimiter limiter;
+    private TokenBucketLimiter exhausted;
+    private LoginRateLimitFilter filter;
+    private String[] ips;
+
+    @Setup
+    public void setup() {
+        limiter = new TokenBucketLimiter(1_000_000_000_000L, Duration.ofNanos(1), KEYS);
+        exhausted = new TokenBucketLimiter(1, Duration.ofHours(1), KEYS);
+        exhausted.tryAcquire("blocked");
+        LoginRateLimiter rateLimiter = new LoginRateLimiter(
+                true, 1_000_000_000_000L, 60_000_000_000L, 5, 5, KEYS, new SimpleMeterRegistry());
+        filter = new LoginRateLimitFilter(rateLimiter, new ObjectMapper());
+        ips = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            ips[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+    }
+
+    @Benchmark
+    public long sameKey() {
+        return limiter.tryAcquire("203.0.113.7");
+    }
+
+    @Benchmark
+    public long spreadKeys() {
+        return limiter.tryAcquire(ips[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public long rejected() {
+        return exhausted.tryAcquire("blocked");
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", LoginRateLimitFilter.LOGIN_PATH);
+        request.setServletPath(LoginRateLimitFilter.LOGIN_PATH);
+        request.setRemoteAddr(ips[ThreadLocalRandom.current().nextInt(KEYS)]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ine.development.benchmarks;
+
+import com.ine.development.config.PasswordHashingCalibrator;
+import com.ine.development.config.PepperingConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide `PepperingConfig.encode` y `matches` con el mismo codificador delegado que arma `SecurityConfig`,
+ * usando Argon2id con los parámetros por defecto (sin calibrar) y BCrypt de costo 12.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "Secreta123!";
+
+    @Param({"argon2id", "bcrypt"})
+    public String algorithm;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        PasswordEncoder argon2 = new PasswordHashingCalibrator.Argon2Settings(16384, 3, 1, 0, false).encoder();
+        PasswordEncoder bCrypt = new BCryptPasswordEncoder(12);
+        encoder = new PepperingConfig(
+                new DelegatingPasswordEncoder(algorithm, Map.of("argon2id", argon2, "bcrypt", bCrypt)),
+                "benchmark-pepper");
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ine.development.benchmarks;
+
+import com.ine.development.DevelopmentApplication;
+import com.ine.development.models.User;
+import com.ine.development.repositories.UserRepository;
+import com.ine.development.services.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compara el modo de hilos de plataforma con el de hilos virtuales en los endpoints de
+ * `/api/v1/users`. Cada invocación lanza `concurrency` peticiones simultáneas contra la aplicación
+ * levantada con el perfil `test` (H2) y mide el tiempo hasta que todas responden.
+ *
+ * ```bash
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="ThreadingModeBenchmark -f 1 -wi 2 -i 5"
+ * ```
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThreadingModeBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final String PASSWORD = "benchmark";
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"200", "2000"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private ExecutorService clients;
+    private String baseUrl;
+    private String token;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = new SpringApplicationBuilder(DevelopmentApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "server.tomcat.accept-count=10000",
+                        "logging.level.root=WARN")
+                .run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        String hash = context.getBean(AuthService.class).encodePassword(PASSWORD);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setName("bench" + i);
+            user.setEmail("bench" + i + "@ine.gob.gt");
+            user.setPhone("12345678");
+            user.setPassword(hash);
+            users.add(user);
+        }
+        ids = context.getBean(UserRepository.class).saveAll(users).stream().map(User::getId).toList();
+
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"bench0@ine.gob.gt\",\"password\":\"" + PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        token = login.body().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        clients.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int findById() throws Exception {
+        return burst(() -> "/api/v1/users/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public int findPage() throws Exception {
+        return burst(() -> "/api/v1/users?limit=50");
+    }
+
+    /**
+     * Lanza `concurrency` peticiones a la vez y devuelve cuántas respondieron 200.
+     */
+    private int burst(Supplier<String> path) throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path.get()))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            responses.add(clients.submit(() -> client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+        }
+        int ok = 0;
+        for (Future<Integer> response : responses) {
+            if (response.get() == 200) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ine.development.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Clase de utilidad para dividir colecciones en bloques, por ejemplo para no superar el límite
+ * de parámetros de una sentencia `IN (...)` (2100 en SQL Server).
+ */
+public final class Chunks {
+    private Chunks() {}
+
+    /**
+     * Divide una colección en bloques consecutivos de como máximo `size` elementos.
+     *
+     * @param <T>    El tipo de los elementos.
+     * @param values Los elementos a dividir.
+     * @param size   El tamaño máximo de cada bloque.
+     * @return Los bloques, en el orden de iteración de la colección.
+     */
+    public static <T> List<List<T>> of(Collection<T> values, int size) {
+        List<T> list = List.copyOf(values);
+        List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            chunks.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return chunks;
+    }
+}
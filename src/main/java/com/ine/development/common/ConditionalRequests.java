@@ -0,0 +1,59 @@
+package com.ine.development.common;
+
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Utilidades para peticiones condicionales (`ETag`, `If-None-Match`, `If-Match`, `Last-Modified`)
+ * sobre recursos con columna de versión.
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {}
+
+    /**
+     * ETag fuerte de un recurso a partir de su versión.
+     *
+     * @param version la versión del recurso.
+     * @return el ETag entre comillas, por ejemplo `"3"`.
+     */
+    public static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Instante de `Last-Modified` en milisegundos a partir de una fecha local del servidor.
+     */
+    public static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Obtiene la versión esperada de un encabezado `If-Match`. `If-Match` usa la comparación
+     * fuerte (RFC 9110), por lo que un ETag débil (`W/"3"`) nunca coincide y se rechaza.
+     *
+     * @param ifMatch el valor del encabezado (puede ser nulo).
+     * @return la versión esperada, o null si no hay encabezado o es `*`.
+     * @throws IllegalArgumentException si el encabezado no contiene un ETag fuerte de versión.
+     */
+    @Nullable
+    public static Long expectedVersion(@Nullable String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new IllegalArgumentException("Encabezado If-Match inválido: se requiere un ETag fuerte.");
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("Encabezado If-Match inválido.");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Encabezado If-Match inválido.");
+        }
+    }
+}
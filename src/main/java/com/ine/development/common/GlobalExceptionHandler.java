@@ -2,9 +2,14 @@ package com.ine.development.common;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.ine.development.common.dto.ApiResponse;
+import com.ine.development.common.interfaces.UniqueConstraintMessages;
+import com.ine.development.services.LoginRateLimitedException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.ServletException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
@@ -18,6 +23,9 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -27,6 +35,15 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final Map<String, String> uniqueConstraintMessages = new HashMap<>();
+
+    @Value("${security.login.executor.retry-after-seconds:1}")
+    private String retryAfterSeconds;
+
+    public GlobalExceptionHandler(List<UniqueConstraintMessages> messageSources) {
+        messageSources.forEach(source -> uniqueConstraintMessages.putAll(source.uniqueConstraintMessages()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Void>> handleIllegalArgument(IllegalArgumentException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -60,10 +77,32 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ApiResponse<Void>> handleDataIntegrity(DataIntegrityViolationException ex) {
+        String uniqueMessage = uniqueViolationMessage(ex);
+        if (uniqueMessage != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.fail(uniqueMessage));
+        }
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(ApiResponse.fail("Violación de integridad en la base de datos: " + ex.getMostSpecificCause().getMessage()));
     }
 
+    /**
+     * Traduce la violación de una restricción única conocida al mismo mensaje que da la validación previa.
+     * El nombre de la restricción se toma de Hibernate o, si el driver no lo informa, del mensaje de la base de datos.
+     */
+    private String uniqueViolationMessage(DataIntegrityViolationException ex) {
+        String detail = ex.getCause() instanceof org.hibernate.exception.ConstraintViolationException cve
+                && cve.getConstraintName() != null
+                ? cve.getConstraintName()
+                : String.valueOf(ex.getMostSpecificCause().getMessage());
+        String lower = detail.toLowerCase();
+        return uniqueConstraintMessages.entrySet().stream()
+                .filter(entry -> lower.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
     @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
     public ResponseEntity<ApiResponse<Void>> handleOptimisticLock(ObjectOptimisticLockingFailureException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
@@ -76,6 +115,20 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.fail("Servicio de base de datos no disponible."));
     }
 
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleTaskRejected(TaskRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .body(ApiResponse.fail("Servicio saturado. Intente de nuevo más tarde."));
+    }
+
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLoginRateLimited(LoginRateLimitedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.fail(ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleUnknown(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
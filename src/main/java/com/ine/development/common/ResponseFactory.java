@@ -1,8 +1,22 @@
 package com.ine.development.common;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.ine.development.common.dto.ApiResponse;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Clase de utilidad para crear respuestas HTTP estandarizadas utilizando la clase ApiResponse.
@@ -10,12 +24,26 @@ import org.springframework.http.ResponseEntity;
  */
 public final class ResponseFactory {
 
+    private static final int STREAM_FLUSH_EVERY = 500;
+
     private ResponseFactory() {}
 
     public static <T> ResponseEntity<ApiResponse<T>> ok(String message, T data) {
         return ResponseEntity.ok(ApiResponse.ok(message, data));
     }
 
+    /**
+     * Crea una respuesta exitosa con `ETag` y `Last-Modified`, para que los clientes puedan
+     * revalidarla con `If-None-Match` o `If-Modified-Since`.
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> okVersioned(String message, T data, String etag, LocalDateTime updatedAt) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(ConditionalRequests.lastModified(updatedAt))
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.ok(message, data));
+    }
+
     public static ResponseEntity<ApiResponse<Void>> created(String message) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.ok(message, null));
@@ -30,4 +58,51 @@ public final class ResponseFactory {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.ok(message, data));
     }
-}
\ No newline at end of file
+
+    /**
+     * Crea una respuesta exitosa cuyo arreglo `data` se escribe de forma incremental.
+     * Los campos del envoltorio se obtienen serializando un `ApiResponse` con el mismo `ObjectMapper`
+     * y el arreglo `data` se escribe con `JsonGenerator` a medida que el productor entrega elementos,
+     * por lo que la memoria no depende del número de filas y el primer byte sale antes de que
+     * termine la consulta.
+     *
+     * @param mapper   el `ObjectMapper` de la aplicación.
+     * @param message  el mensaje de la respuesta.
+     * @param producer función que entrega cada elemento al consumidor recibido.
+     * @return una respuesta con cuerpo en streaming.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> okStream(
+            ObjectMapper mapper, String message, Consumer<Consumer<T>> producer) {
+        // el único arreglo del envoltorio es `data`, que se reemplaza por los elementos del productor
+        ObjectNode envelope = mapper.valueToTree(ApiResponse.ok(message, List.of()));
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+                gen.writeStartObject();
+                for (Map.Entry<String, JsonNode> field : envelope.properties()) {
+                    if (!field.getValue().isArray()) {
+                        gen.writeFieldName(field.getKey());
+                        gen.writeTree(field.getValue());
+                        continue;
+                    }
+                    gen.writeArrayFieldStart(field.getKey());
+                    int[] written = {0};
+                    producer.accept(item -> {
+                        try {
+                            gen.writeObject(item);
+                            if (++written[0] % STREAM_FLUSH_EVERY == 0) {
+                                gen.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    gen.writeEndArray();
+                }
+                gen.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
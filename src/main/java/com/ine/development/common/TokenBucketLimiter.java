@@ -0,0 +1,79 @@
+package com.ine.development.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de tasa por clave con cubetas de tokens sin locks.
+ * Cada cubeta es un único `AtomicLong` con el instante teórico de la próxima llegada (GCRA), que
+ * equivale a una cubeta de `capacity` tokens que recupera uno cada `refillInterval`: adquirir un
+ * token es una lectura y un compare-and-set.
+ * Las cubetas se guardan en una caché acotada a `maxKeys` entradas. Una cubeta sin uso durante
+ * `capacity × refillInterval` ya está llena, por lo que se descarta sin perder información.
+ */
+public final class TokenBucketLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param capacity       número máximo de tokens (ráfaga permitida).
+     * @param refillInterval tiempo para recuperar un token.
+     * @param maxKeys        número máximo de claves en memoria.
+     */
+    public TokenBucketLimiter(long capacity, Duration refillInterval, long maxKeys) {
+        this(capacity, refillInterval, maxKeys, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime el reloj monotónico en nanosegundos, reemplazable en las pruebas.
+     */
+    TokenBucketLimiter(long capacity, Duration refillInterval, long maxKeys, LongSupplier nanoTime) {
+        if (capacity < 1 || refillInterval.isNegative() || refillInterval.isZero()) {
+            throw new IllegalArgumentException("La capacidad y el intervalo de recarga deben ser positivos.");
+        }
+        this.intervalNanos = refillInterval.toNanos();
+        this.burstNanos = Math.multiplyExact(capacity, intervalNanos);
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .ticker(nanoTime::getAsLong)
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    /**
+     * Intenta consumir un token de la cubeta de la clave.
+     *
+     * @param key la clave a limitar.
+     * @return 0 si se concedió el token, o los nanosegundos que faltan para que haya uno disponible.
+     */
+    public long tryAcquire(String key) {
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(nanoTime.getAsLong() - burstNanos));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = arrival.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return el número aproximado de claves con cubeta en memoria.
+     */
+    public long estimatedSize() {
+        return buckets.estimatedSize();
+    }
+}
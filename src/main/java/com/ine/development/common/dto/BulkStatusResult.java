@@ -0,0 +1,14 @@
+package com.ine.development.common.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de un cambio de estado masivo.
+ * Los ids que existían pero ya tenían el estado solicitado no aparecen en ninguna de las listas.
+ *
+ * @param affected los ids cuyo estado se cambió.
+ * @param missing  los ids que no existen.
+ * @param <ID>     el tipo del identificador.
+ */
+public record BulkStatusResult<ID>(List<ID> affected, List<ID> missing) {
+}
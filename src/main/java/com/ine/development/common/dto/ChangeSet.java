@@ -0,0 +1,37 @@
+package com.ine.development.common.dto;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Registros creados o modificados después de una marca de agua, ordenados por fecha de
+ * actualización e id. El cliente guarda `watermark` y la envía en la siguiente sincronización;
+ * si `hasMore` es verdadero debe pedir el siguiente bloque de inmediato.
+ *
+ * @param items     los registros modificados.
+ * @param watermark la marca de agua del último registro, o la recibida si no hubo cambios.
+ * @param hasMore   indica si existen más cambios después de este bloque.
+ * @param <T>       el tipo de los registros.
+ */
+public record ChangeSet<T>(List<T> items, @Nullable String watermark, boolean hasMore) {
+
+    /**
+     * Construye el bloque a partir de una consulta que pidió `limit + 1` filas;
+     * la fila adicional solo indica si existen más cambios.
+     *
+     * @param fetched     las filas obtenidas, ordenadas por fecha de actualización e id.
+     * @param limit       el tamaño de bloque solicitado.
+     * @param since       la marca de agua recibida, o null en la primera sincronización.
+     * @param watermarkOf función que obtiene la marca de agua de un registro.
+     * @return el bloque construido.
+     */
+    public static <T> ChangeSet<T> of(List<T> fetched, int limit, @Nullable Watermark<?> since,
+                                      Function<T, Watermark<?>> watermarkOf) {
+        boolean hasMore = fetched.size() > limit;
+        List<T> items = hasMore ? fetched.subList(0, limit) : fetched;
+        Watermark<?> last = items.isEmpty() ? since : watermarkOf.apply(items.get(items.size() - 1));
+        return new ChangeSet<>(List.copyOf(items), last == null ? null : last.toString(), hasMore);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ine.development.common.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados obtenida con paginación por cursor (keyset).
+ * El cliente solicita la siguiente página enviando `nextCursor` en el parámetro `after`.
+ *
+ * @param items      los elementos de la página.
+ * @param nextCursor el id del último elemento, o null si no hay más páginas.
+ * @param hasMore    indica si existen más elementos después de esta página.
+ * @param <T>        el tipo de los elementos.
+ * @param <ID>       el tipo del identificador usado como cursor.
+ */
+public record CursorPage<T, ID>(List<T> items, ID nextCursor, boolean hasMore) {
+
+    /**
+     * Construye la página a partir de una consulta que pidió `limit + 1` filas;
+     * la fila adicional solo indica si existe una página siguiente.
+     *
+     * @param fetched las filas obtenidas, ordenadas por id.
+     * @param limit   el tamaño de página solicitado.
+     * @param idOf    función que obtiene el id de un elemento.
+     * @return la página construida.
+     */
+    public static <T, ID> CursorPage<T, ID> of(List<T> fetched, int limit, Function<T, ID> idOf) {
+        boolean hasMore = fetched.size() > limit;
+        List<T> items = hasMore ? fetched.subList(0, limit) : fetched;
+        ID next = (hasMore && !items.isEmpty()) ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(List.copyOf(items), next, hasMore);
+    }
+}
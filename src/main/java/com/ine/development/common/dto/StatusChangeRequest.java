@@ -0,0 +1,24 @@
+package com.ine.development.common.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Solicitud de cambio de estado masivo.
+ *
+ * @param ids    los ids de los registros a modificar.
+ * @param status el nuevo estado (0=Inactivo, 1=Activo).
+ * @param <ID>   el tipo del identificador.
+ */
+public record StatusChangeRequest<ID>(
+        @NotEmpty(message = "Debe indicar al menos un id")
+        List<@NotNull ID> ids,
+
+        @NotNull(message = "El campo status es obligatorio")
+        @Min(0) @Max(1)
+        Integer status
+) {}
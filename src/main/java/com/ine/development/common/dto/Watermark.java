@@ -0,0 +1,41 @@
+package com.ine.development.common.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+/**
+ * Marca de agua de la sincronización incremental: la fecha de actualización y el id del último
+ * registro entregado. El id desempata los registros modificados en el mismo instante.
+ * Se envía al cliente como `<updatedAt>_<id>`, por ejemplo `2026-10-18T04:35:18.819636_25`.
+ *
+ * @param updatedAt la fecha de actualización del último registro entregado.
+ * @param id        el id del último registro entregado.
+ * @param <ID>      el tipo del identificador.
+ */
+public record Watermark<ID>(LocalDateTime updatedAt, ID id) {
+
+    /**
+     * Interpreta una marca de agua recibida del cliente.
+     *
+     * @param value    la marca de agua.
+     * @param idParser función que convierte el texto del id.
+     * @return la marca de agua.
+     * @throws IllegalArgumentException si el formato no es válido.
+     */
+    public static <ID> Watermark<ID> parse(String value, Function<String, ID> idParser) {
+        int separator = value.lastIndexOf('_');
+        try {
+            return new Watermark<>(
+                    LocalDateTime.parse(value.substring(0, Math.max(separator, 0))),
+                    idParser.apply(value.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Marca de agua inválida.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return updatedAt + "_" + id;
+    }
+}
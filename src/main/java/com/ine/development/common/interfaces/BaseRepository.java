@@ -1,14 +1,47 @@
 package com.ine.development.common.interfaces;
 
+import com.ine.development.common.Chunks;
+import com.ine.development.common.dto.BulkStatusResult;
+import com.ine.development.common.dto.Watermark;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interfaz base para repositorios JPA personalizados.
  * Proporciona métodos genéricos para manejar entidades con campos `isActive` e `isDelete`.
+ * Las consultas paginadas usan paginación por cursor (`id > :after ORDER BY id`), por lo que
+ * su costo no depende de la profundidad de la página.
+ * Los métodos que reciben `Class<P>` devuelven proyecciones (records o interfaces) que seleccionan
+ * solo las columnas de la proyección y no se registran en el contexto de persistencia.
+ * Las consultas por estado son cacheables: con la caché de consultas de Hibernate activa, su resultado
+ * se reutiliza hasta que cambie cualquier fila de la tabla. Para que además las entidades se lean de la
+ * caché de segundo nivel, la entidad debe anotarse con `@Cacheable` y `@Cache`.
+ * Los cambios de estado masivos ({@link #changeStatus}) se ejecutan como sentencias `UPDATE` por
+ * bloques, sin cargar las entidades; Hibernate invalida la región de la entidad y las consultas
+ * cacheadas sobre su tabla al ejecutarlas.
+ * La sincronización incremental ({@link #findChanges}) requiere que la entidad tenga `updatedAt`,
+ * actualizado en cada escritura, y un índice sobre `(updated_at, id)`.
  *
  * @param <T>  el tipo de la entidad.
  * @param <ID> el tipo del identificador de la entidad.
@@ -16,10 +49,78 @@ import java.util.List;
 @NoRepositoryBean
 public interface BaseRepository<T, ID> extends JpaRepository<T, ID> {
 
+    /** Ids por sentencia en los cambios masivos, por debajo del límite de 2100 parámetros de SQL Server. */
+    int BULK_CHUNK_SIZE = 1000;
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<T> findByStatus(Integer status);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<T> findByStatusIn(Collection<Integer> statuses);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    <P> List<P> findByStatusIn(Collection<Integer> statuses, Class<P> type);
+
+    <P> Optional<P> findByIdAndStatus(ID id, Integer status, Class<P> type);
+
+    <P> List<P> findByStatusInOrderByIdAsc(Collection<Integer> statuses, Limit limit, Class<P> type);
+
+    <P> List<P> findByStatusInAndIdGreaterThanOrderByIdAsc(Collection<Integer> statuses, ID after, Limit limit, Class<P> type);
+
+    /**
+     * Recorre los registros con los estados indicados sin cargarlos todos en memoria.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar; las filas se leen del
+     * driver en bloques de `fetchSize` y se marcan como solo lectura para omitir el dirty-checking.
+     *
+     * @param statuses los estados a filtrar.
+     * @param type     la proyección a devolver (o la propia entidad).
+     * @return un stream ordenado por id.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    <P> Stream<P> streamByStatusInOrderByIdAsc(Collection<Integer> statuses, Class<P> type);
+
+    /**
+     * Obtiene hasta `limit` registros con los estados indicados cuyo id es mayor al cursor.
+     *
+     * @param statuses los estados a filtrar.
+     * @param after    el id del último elemento de la página anterior, o null para la primera página.
+     * @param limit    el número máximo de filas.
+     * @param type     la proyección a devolver (o la propia entidad).
+     * @return los registros ordenados por id.
+     */
+    default <P> List<P> findPageByStatus(Collection<Integer> statuses, ID after, int limit, Class<P> type) {
+        return after == null
+                ? findByStatusInOrderByIdAsc(statuses, Limit.of(limit), type)
+                : findByStatusInAndIdGreaterThanOrderByIdAsc(statuses, after, Limit.of(limit), type);
+    }
+
+    <P> List<P> findByUpdatedAtLessThanEqualOrderByUpdatedAtAscIdAsc(LocalDateTime until, Limit limit, Class<P> type);
+
+    <P> List<P> findByUpdatedAtGreaterThanAndUpdatedAtLessThanEqualOrUpdatedAtAndIdGreaterThanOrderByUpdatedAtAscIdAsc(
+            LocalDateTime since, LocalDateTime until, LocalDateTime sameInstant, ID afterId, Limit limit, Class<P> type);
+
+    /**
+     * Obtiene hasta `limit` registros creados o modificados después de la marca de agua, en cualquier
+     * estado, ordenados por fecha de actualización e id. Los modificados después de `until` se
+     * omiten para entregarlos en la siguiente sincronización, cuando ya no pueda confirmarse una
+     * transacción con una fecha anterior.
+     *
+     * @param since la marca de agua del último registro entregado, o null en la primera sincronización.
+     * @param until la fecha de actualización máxima a entregar.
+     * @param limit el número máximo de filas.
+     * @param type  la proyección a devolver (o la propia entidad).
+     * @return los registros ordenados por fecha de actualización e id.
+     */
+    default <P> List<P> findChanges(@Nullable Watermark<ID> since, LocalDateTime until, int limit, Class<P> type) {
+        return since == null
+                ? findByUpdatedAtLessThanEqualOrderByUpdatedAtAscIdAsc(until, Limit.of(limit), type)
+                : findByUpdatedAtGreaterThanAndUpdatedAtLessThanEqualOrUpdatedAtAndIdGreaterThanOrderByUpdatedAtAscIdAsc(
+                        since.updatedAt(), until, since.updatedAt(), since.id(), Limit.of(limit), type);
+    }
+
     default List<T> findAllActive() {
         return findByStatus(1);
     }
@@ -27,4 +128,62 @@ public interface BaseRepository<T, ID> extends JpaRepository<T, ID> {
     default List<T> findAllInactive() {
         return findByStatus(0);
     }
-}
\ No newline at end of file
+
+    @Query("select e.id from #{#entityName} e where e.id in :ids")
+    List<ID> findIdsByIdIn(Collection<ID> ids);
+
+    /**
+     * Obtiene y bloquea hasta el final de la transacción los registros que tienen otro estado, para
+     * que ninguna transacción concurrente los cambie antes del `UPDATE` que los modifica.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from #{#entityName} e where e.id in :ids and e.status <> :status")
+    List<ID> findIdsByIdInAndStatusNot(Collection<ID> ids, Integer status);
+
+    /**
+     * Cambia el estado de los registros indicados que tengan otro estado, en una sola sentencia, y
+     * su fecha de actualización. Los repositorios pueden redefinir la consulta para actualizar otras
+     * columnas junto con el estado.
+     *
+     * @param ids    como máximo {@link #BULK_CHUNK_SIZE} ids.
+     * @param status el nuevo estado.
+     * @param now    la fecha de actualización, tomada del reloj de la aplicación como en `@UpdateTimestamp`.
+     * @return el número de filas modificadas.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update #{#entityName} e set e.status = :status, e.updatedAt = :now where e.id in :ids and e.status <> :status")
+    int updateStatus(Collection<ID> ids, Integer status, LocalDateTime now);
+
+    /**
+     * Cambia el estado de muchos registros en una transacción, con una consulta de ids y un `UPDATE`
+     * por cada bloque de {@link #BULK_CHUNK_SIZE} ids. La consulta bloquea las filas que se van a
+     * cambiar, por lo que los ids reportados son exactamente los que modificó esta llamada. Solo si
+     * un bloque tiene ids que no deben cambiarse se consulta cuáles existen, para distinguir los inexistentes.
+     *
+     * @param ids    los ids a modificar; los repetidos se consideran una vez.
+     * @param status el nuevo estado.
+     * @return los ids modificados y los ids inexistentes.
+     */
+    @Transactional
+    default BulkStatusResult<ID> changeStatus(Collection<ID> ids, Integer status) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ID> affected = new ArrayList<>();
+        List<ID> missing = new ArrayList<>();
+        for (List<ID> chunk : Chunks.of(new LinkedHashSet<>(ids), BULK_CHUNK_SIZE)) {
+            List<ID> pending = findIdsByIdInAndStatusNot(chunk, status);
+            if (!pending.isEmpty()) {
+                int updated = updateStatus(pending, status, now);
+                if (updated != pending.size()) {
+                    throw new IncorrectUpdateSemanticsDataAccessException(
+                            "Se bloquearon " + pending.size() + " filas para cambiar su estado y se modificaron " + updated + ".");
+                }
+                affected.addAll(pending);
+            }
+            if (pending.size() < chunk.size()) {
+                Set<ID> existing = new HashSet<>(findIdsByIdIn(chunk));
+                chunk.stream().filter(id -> !existing.contains(id)).forEach(missing::add);
+            }
+        }
+        return new BulkStatusResult<>(List.copyOf(affected), List.copyOf(missing));
+    }
+}
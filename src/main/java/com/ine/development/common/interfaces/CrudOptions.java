@@ -1,19 +1,28 @@
 package com.ine.development.common.interfaces;
 
+import com.ine.development.common.dto.BulkStatusResult;
+import com.ine.development.common.dto.ChangeSet;
+import com.ine.development.common.dto.CursorPage;
+
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Interfaz genérica para operaciones CRUD personalizadas.
  *
  * @param <E>  el tipo de la entidad.
+ * @param <V>  el tipo de la proyección de lectura.
  * @param <ID> el tipo del identificador de la entidad.
  * @param <C>  el tipo del payload para la creación.
  * @param <U>  el tipo del payload para la actualización.
  */
-public interface CrudOptions<E, ID, C, U> {
+public interface CrudOptions<E, V, ID, C, U> {
     E create(C payload);
     E update(ID id, U payload);
     void disable(ID id);
-    List<E> findAll(Integer... status);
-    E findById(ID id);
+    BulkStatusResult<ID> changeStatus(Collection<ID> ids, Integer status);
+    List<V> findAll(Integer... status);
+    CursorPage<V, ID> findPage(ID after, int limit, Integer... status);
+    ChangeSet<V> findChanges(String since, int limit);
+    V findById(ID id);
 }
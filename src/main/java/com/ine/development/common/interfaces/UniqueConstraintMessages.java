@@ -0,0 +1,16 @@
+package com.ine.development.common.interfaces;
+
+import java.util.Map;
+
+/**
+ * Mensajes para las violaciones de restricciones únicas de una entidad.
+ * `GlobalExceptionHandler` reúne los de todos los beans que implementan esta interfaz para
+ * responder con el mismo error que da la validación previa.
+ */
+public interface UniqueConstraintMessages {
+
+    /**
+     * @return el mensaje para el cliente por nombre de restricción (en minúsculas).
+     */
+    Map<String, String> uniqueConstraintMessages();
+}
@@ -1,21 +1,24 @@
 package com.ine.development.components;
 
-import com.ine.development.models.User;
-import com.ine.development.repositories.UserRepository;
+import com.ine.development.models.dto.UserPrincipal;
 import com.ine.development.services.JwtService;
+import com.ine.development.services.PrincipalCacheService;
+import com.ine.development.services.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Filtro personalizado para la autenticación basada en JWT.
@@ -25,12 +28,36 @@ import java.util.List;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    /** Atributo de la petición con los claims del token que la autenticó. */
+    public static final String CLAIMS_ATTRIBUTE = "jwt_claims";
+
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCacheService principalCache;
+    private final TokenRevocationService revocationService;
+    private final Timer anonymous;
+    private final Timer authenticated;
+    private final Timer rejected;
 
-    public JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthFilter(JwtService jwtService,
+                         PrincipalCacheService principalCache,
+                         TokenRevocationService revocationService,
+                         MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.revocationService = revocationService;
+        this.anonymous = filterTimer("anonymous", meterRegistry);
+        this.authenticated = filterTimer("authenticated", meterRegistry);
+        this.rejected = filterTimer("rejected", meterRegistry);
+    }
+
+    /**
+     * Tiempo propio del filtro (sin el resto de la cadena), por resultado de la autenticación.
+     */
+    private static Timer filterTimer(String outcome, MeterRegistry registry) {
+        return Timer.builder("security.jwt.filter")
+                .description("Tiempo de autenticación del filtro JWT, sin el resto de la cadena")
+                .tag("outcome", outcome)
+                .register(registry);
     }
 
     /**
@@ -45,30 +72,53 @@ public class JwtAuthFilter extends OncePerRequestFilter {
      */
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain) throws ServletException, IOException {
+        long start = System.nanoTime();
         String header = req.getHeader(HttpHeaders.AUTHORIZATION);
         if (header == null || !header.startsWith("Bearer ")) {
+            anonymous.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             chain.doFilter(req, res);
             return;
         }
 
         String token = header.substring(7);
+        Timer outcome = rejected;
         try {
-            String sub = jwtService.extractSubject(token);
-            Long userId = Long.valueOf(sub);
-
-            User u = userRepository.findById(userId).orElse(null);
-            if (u != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims = jwtService.parse(token).getBody();
+            UserPrincipal p = resolvePrincipal(claims);
+            if (p != null && p.isActive() && SecurityContextHolder.getContext().getAuthentication() == null) {
                 var auth = new UsernamePasswordAuthenticationToken(
-                        u.getName(),
+                        p.name(),
                         null,
-                        List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                        p.authorities()
                 );
                 SecurityContextHolder.getContext().setAuthentication(auth);
+                req.setAttribute(CLAIMS_ATTRIBUTE, claims);
+                outcome = authenticated;
             }
         } catch (io.jsonwebtoken.JwtException | NumberFormatException e) {
             SecurityContextHolder.clearContext();
             req.setAttribute("jwt_error", e.getMessage());
         }
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         chain.doFilter(req, res);
     }
+
+    /**
+     * Obtiene el principal del token. En modo sin estado se construye solo a partir de los claims
+     * y se valida contra el registro de revocaciones; en otro caso (o si el token fue emitido antes
+     * de activar el modo) se usa la caché de principales.
+     *
+     * @param claims los claims verificados del token.
+     * @return el principal, o null si el token fue revocado o el usuario no existe.
+     */
+    private UserPrincipal resolvePrincipal(Claims claims) {
+        Long userId = Long.valueOf(claims.getSubject());
+        if (jwtService.isStateless()) {
+            var fromClaims = jwtService.principalFromClaims(claims);
+            if (fromClaims.isPresent()) {
+                return revocationService.isRevoked(userId, JwtService.epochOf(claims)) ? null : fromClaims.get();
+            }
+        }
+        return principalCache.get(userId).orElse(null);
+    }
 }
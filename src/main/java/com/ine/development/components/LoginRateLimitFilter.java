@@ -0,0 +1,61 @@
+package com.ine.development.components;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ine.development.common.dto.ApiResponse;
+import com.ine.development.services.LoginRateLimitedException;
+import com.ine.development.services.LoginRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que aplica el límite de intentos por IP a `POST /api/v1/auth/login`.
+ * Responde `429 Too Many Requests` con `Retry-After` antes de leer el cuerpo de la petición,
+ * de modo que un cliente abusivo no llega a consumir una verificación de Argon2.
+ * La IP es la dirección remota del conector; detrás de un proxy debe configurarse
+ * `server.forward-headers-strategy` para que refleje la del cliente.
+ */
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LOGIN_PATH = "/api/v1/auth/login";
+
+    private final LoginRateLimiter rateLimiter;
+    private final ObjectMapper mapper;
+
+    public LoginRateLimitFilter(LoginRateLimiter rateLimiter, ObjectMapper mapper) {
+        this.rateLimiter = rateLimiter;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return !rateLimiter.isEnabled()
+                || !HttpMethod.POST.matches(req.getMethod())
+                || !LOGIN_PATH.equals(req.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain) throws ServletException, IOException {
+        try {
+            rateLimiter.checkIp(req.getRemoteAddr());
+        } catch (LoginRateLimitedException e) {
+            res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.setCharacterEncoding("UTF-8");
+            mapper.writeValue(res.getWriter(), ApiResponse.fail(e.getMessage()));
+            return;
+        }
+        chain.doFilter(req, res);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ine.development.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuración de los ejecutores dedicados de la aplicación.
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Ejecutor general de la aplicación (`@Async` y peticiones asíncronas de Spring MVC).
+     * Se declara explícitamente porque Spring Boot deja de crearlo cuando existe otro ejecutor
+     * en el contexto, como los ejecutores dedicados de esta clase.
+     *
+     * @param builder el constructor configurado con las propiedades `spring.task.execution.*`.
+     * @return el ejecutor configurado.
+     */
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Ejecutor general en modo de hilos virtuales (`spring.threads.virtual.enabled=true`):
+     * crea un hilo virtual por tarea, igual que el ejecutor que Spring Boot configura en ese modo.
+     *
+     * @param builder el constructor configurado con las propiedades `spring.task.execution.simple.*`.
+     * @return el ejecutor configurado.
+     */
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtual(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Ejecutor acotado para el hashing de contraseñas durante el inicio de sesión.
+     * Cada verificación Argon2 reserva decenas de MiB y consume CPU, por lo que se limita la
+     * concurrencia y la cola; cuando ambas se llenan la tarea se rechaza de inmediato
+     * (`TaskRejectedException`) y se responde 503 en lugar de bloquear los hilos de Tomcat.
+     * Los ejecutores de hashing usan hilos de plataforma también en modo virtual: su trabajo es de
+     * CPU y el límite de hilos es lo que acota la memoria de Argon2.
+     *
+     * @param concurrency   número máximo de verificaciones simultáneas (por defecto, número de CPUs).
+     * @param queueCapacity número máximo de inicios de sesión en espera.
+     * @return el ejecutor configurado.
+     */
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor(
+            @Value("${security.login.executor.concurrency:0}") int concurrency,
+            @Value("${security.login.executor.queue-capacity:100}") int queueCapacity
+    ) {
+        int threads = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Ejecutor en segundo plano para volver a codificar contraseñas con parámetros obsoletos.
+     * Usa pocos hilos para no competir con los inicios de sesión; si la cola se llena la tarea se
+     * descarta y se intentará de nuevo en el siguiente inicio de sesión del usuario.
+     *
+     * @param threads       número de hilos.
+     * @param queueCapacity número máximo de migraciones en espera.
+     * @return el ejecutor configurado.
+     */
+    @Bean(name = "rehashExecutor")
+    public ThreadPoolTaskExecutor rehashExecutor(
+            @Value("${security.password.rehash.threads:1}") int threads,
+            @Value("${security.password.rehash.queue-capacity:1000}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("rehash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Ejecutor acotado para codificar en paralelo las contraseñas de una importación masiva.
+     * Cuando la cola se llena, la tarea se ejecuta en el hilo que importa, lo que frena la lectura
+     * del archivo en lugar de acumular filas en memoria.
+     *
+     * @param threads número de hilos (por defecto, número de CPUs).
+     * @return el ejecutor configurado.
+     */
+    @Bean(name = "importExecutor")
+    public ThreadPoolTaskExecutor importExecutor(@Value("${app.users.import.hash-threads:0}") int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(size * 4);
+        executor.setThreadNamePrefix("user-import-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Ejecutor que envía los eventos del flujo de cambios de usuarios a cada suscriptor.
+     * Usa un hilo virtual por envío también en modo de plataforma: escribir a un cliente lento
+     * bloquea hasta que el socket acepta los datos, y un hilo virtual bloqueado no retiene un hilo
+     * del sistema operativo.
+     *
+     * @return el ejecutor configurado.
+     */
+    @Bean(name = "userEventsExecutor")
+    public SimpleAsyncTaskExecutor userEventsExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("user-events-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
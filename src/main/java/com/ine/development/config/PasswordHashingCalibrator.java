@@ -0,0 +1,201 @@
+package com.ine.development.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.lang.NonNull;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Calibra al iniciar la aplicación los parámetros de Argon2 según la capacidad del host.
+ * Busca la mayor memoria (dentro del presupuesto) y el número de iteraciones con los que un hash
+ * tarda aproximadamente la latencia objetivo, sin bajar nunca de los mínimos configurados.
+ * Los parámetros elegidos se publican en `/actuator/info` y como métricas.
+ *
+ * Los hashes existentes con otros parámetros siguen verificándose, porque Argon2 guarda
+ * sus parámetros dentro del propio hash. Solo se consideran obsoletos los que no alcanzan los
+ * mínimos configurados, que son los mismos en todas las instancias aunque cada una calibre
+ * parámetros distintos.
+ */
+@Component
+public class PasswordHashingCalibrator implements InfoContributor, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingCalibrator.class);
+
+    public static final int SALT_LENGTH = 16;
+    public static final int HASH_LENGTH = 32;
+    private static final int PARALLELISM = 1;
+    private static final int MAX_ITERATIONS = 10;
+    private static final String SAMPLE_PASSWORD = "calibracion-argon2";
+    private static final Pattern ARGON2_PARAMETERS =
+            Pattern.compile("\\{argon2id}\\$argon2id\\$v=\\d+\\$m=(\\d{1,9}),t=(\\d{1,9}),p=\\d{1,9}\\$");
+
+    private final boolean enabled;
+    private final long targetMs;
+    private final int memoryKb;
+    private final int iterations;
+    private final int maxMemoryKb;
+    private final int minMemoryKb;
+    private final int minIterations;
+
+    /** Se usa un lock en lugar de `synchronized` para no fijar hilos virtuales durante la calibración. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Argon2Settings settings;
+
+    /**
+     * Parámetros de Argon2 seleccionados.
+     *
+     * @param memoryKb    memoria por hash en KiB.
+     * @param iterations  número de iteraciones.
+     * @param parallelism grado de paralelismo.
+     * @param measuredMs  latencia medida por hash (0 si no se calibró).
+     * @param calibrated  indica si los parámetros se obtuvieron por calibración.
+     */
+    public record Argon2Settings(int memoryKb, int iterations, int parallelism, long measuredMs, boolean calibrated) {
+
+        public Argon2PasswordEncoder encoder() {
+            return new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKb, iterations);
+        }
+    }
+
+    public PasswordHashingCalibrator(
+            @Value("${security.password.argon2.calibrate:true}") boolean enabled,
+            @Value("${security.password.argon2.target-ms:100}") long targetMs,
+            @Value("${security.password.argon2.memory-kb:16384}") int memoryKb,
+            @Value("${security.password.argon2.iterations:3}") int iterations,
+            @Value("${security.password.argon2.max-memory-kb:65536}") int maxMemoryKb,
+            @Value("${security.password.argon2.min-memory-kb:12288}") int minMemoryKb,
+            @Value("${security.password.argon2.min-iterations:3}") int minIterations
+    ) {
+        this.enabled = enabled;
+        this.targetMs = targetMs;
+        this.memoryKb = Math.max(memoryKb, minMemoryKb);
+        this.iterations = Math.max(iterations, minIterations);
+        this.maxMemoryKb = Math.max(maxMemoryKb, minMemoryKb);
+        this.minMemoryKb = minMemoryKb;
+        this.minIterations = minIterations;
+    }
+
+    /**
+     * Devuelve los parámetros de Argon2, calibrándolos la primera vez que se solicitan.
+     *
+     * @return los parámetros seleccionados.
+     */
+    public Argon2Settings settings() {
+        Argon2Settings s = settings;
+        if (s == null) {
+            lock.lock();
+            try {
+                s = settings;
+                if (s == null) {
+                    s = enabled ? calibrate() : new Argon2Settings(memoryKb, iterations, PARALLELISM, 0, false);
+                    settings = s;
+                    log.info("Parámetros Argon2: m={} KiB, t={}, p={} ({} ms, calibrado={})",
+                            s.memoryKb(), s.iterations(), s.parallelism(), s.measuredMs(), s.calibrated());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Indica si un hash debe volver a codificarse: no es Argon2id o su memoria o sus iteraciones
+     * están por debajo de los mínimos configurados. No se compara con los parámetros calibrados
+     * en este host, para que instancias con hardware distinto no reescriban el mismo hash una y
+     * otra vez.
+     *
+     * @param encoded el hash guardado, con el prefijo `{id}` del codificador.
+     * @return true si el hash no alcanza los mínimos.
+     */
+    public boolean isBelowFloor(String encoded) {
+        Matcher matcher = ARGON2_PARAMETERS.matcher(encoded);
+        return !matcher.lookingAt()
+                || Integer.parseInt(matcher.group(1)) < minMemoryKb
+                || Integer.parseInt(matcher.group(2)) < minIterations;
+    }
+
+    /**
+     * Reduce la memoria a la mitad mientras el hash supere la latencia objetivo y luego
+     * aumenta las iteraciones mientras quede margen, respetando los mínimos configurados.
+     */
+    private Argon2Settings calibrate() {
+        int m = maxMemoryKb;
+        int t = minIterations;
+        long elapsed = measure(m, t);
+        while (elapsed > targetMs && m > minMemoryKb) {
+            m = Math.max(minMemoryKb, m / 2);
+            elapsed = measure(m, t);
+        }
+        while (elapsed > 0 && elapsed < targetMs && t < MAX_ITERATIONS) {
+            int next = (int) Math.min(MAX_ITERATIONS, Math.max(t + 1, t * targetMs / elapsed));
+            long nextElapsed = measure(m, next);
+            if (nextElapsed > targetMs) {
+                break;
+            }
+            t = next;
+            elapsed = nextElapsed;
+        }
+        return new Argon2Settings(m, t, PARALLELISM, elapsed, true);
+    }
+
+    /**
+     * Mide la mediana de tres hashes con los parámetros indicados, tras un hash de calentamiento.
+     */
+    private static long measure(int memoryKb, int iterations) {
+        Argon2PasswordEncoder encoder =
+                new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, PARALLELISM, memoryKb, iterations);
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[3];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[1];
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        Argon2Settings s = settings();
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("algorithm", "argon2id");
+        details.put("memoryKb", s.memoryKb());
+        details.put("iterations", s.iterations());
+        details.put("parallelism", s.parallelism());
+        details.put("measuredMs", s.measuredMs());
+        details.put("targetMs", targetMs);
+        details.put("calibrated", s.calibrated());
+        builder.withDetail("passwordHashing", details);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("security.password.argon2.memory", this, c -> c.settings().memoryKb())
+                .baseUnit("kibibytes")
+                .description("Memoria por hash Argon2")
+                .register(registry);
+        Gauge.builder("security.password.argon2.iterations", this, c -> c.settings().iterations())
+                .description("Iteraciones por hash Argon2")
+                .register(registry);
+        Gauge.builder("security.password.argon2.latency", this, c -> c.settings().measuredMs())
+                .baseUnit("milliseconds")
+                .description("Latencia medida por hash Argon2 durante la calibración")
+                .register(registry);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ine.development.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Enrutamiento de lecturas a réplicas. Se activa al declarar al menos una réplica en
+ * `app.datasource.replicas.<nombre>.*`, con las mismas propiedades que un pool de Hikari
+ * (`jdbc-url`, `username`, `password`, `maximum-pool-size`, ...). El DataSource de la aplicación
+ * se envuelve en un {@link ReadReplicaRoutingDataSource} detrás de un `LazyConnectionDataSourceProxy`.
+ */
+@Configuration
+@Conditional(ReadReplicaConfig.ReplicasConfigured.class)
+public class ReadReplicaConfig {
+
+    static final String REPLICAS = "app.datasource.replicas";
+
+    static Map<String, HikariConfig> replicaConfigs(Environment env) {
+        return Binder.get(env)
+                .bind(REPLICAS, Bindable.mapOf(String.class, HikariConfig.class))
+                .orElse(Map.of());
+    }
+
+    static class ReplicasConfigured implements Condition {
+
+        @Override
+        public boolean matches(@NonNull ConditionContext context, @NonNull AnnotatedTypeMetadata metadata) {
+            return !replicaConfigs(context.getEnvironment()).isEmpty();
+        }
+    }
+
+    /**
+     * Envuelve el DataSource primario después de los demás post-procesadores, de modo que el
+     * limitador de conexiones de hilos virtuales ya esté aplicado sobre el pool primario. El tipo de
+     * retorno concreto permite que Spring vea el orden antes de instanciar el post-procesador.
+     */
+    @Bean
+    public static RoutingPostProcessor readReplicaRoutingPostProcessor(Environment env) {
+        return new RoutingPostProcessor(env);
+    }
+
+    record RoutingPostProcessor(Environment env) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+                return bean;
+            }
+            boolean limit = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                    && env.getProperty("app.datasource.limiter.enabled", Boolean.class, true);
+            List<ReadReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+            replicaConfigs(env).forEach((name, config) -> {
+                HikariDataSource pool = new HikariDataSource();
+                config.copyStateTo(pool);
+                if (pool.getPoolName() == null) {
+                    pool.setPoolName("replica-" + name);
+                }
+                // completa los valores por defecto, como el tamaño del pool que dimensiona el limitador
+                pool.validate();
+                DataSource replica = limit
+                        ? new ConnectionLimitingDataSource(pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout())
+                        : pool;
+                replicas.add(new ReadReplicaRoutingDataSource.Replica(name, replica));
+            });
+            Duration window = Duration.ofMillis(
+                    env.getProperty("app.datasource.routing.read-your-writes-ms", Long.class, 5000L));
+            return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replicas, window));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    @Bean
+    public ReadReplicaMonitor readReplicaMonitor(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.routing.health-check-timeout-ms:2000}") long timeoutMs
+    ) throws SQLException {
+        return new ReadReplicaMonitor(dataSource.unwrap(ReadReplicaRoutingDataSource.class), meterRegistry,
+                Duration.ofMillis(timeoutMs));
+    }
+
+    /**
+     * Verifica periódicamente las réplicas, publica su estado en `/actuator/health` y como
+     * `app.datasource.replica.healthy{replica}`, y las métricas de cada pool como `hikaricp.*{pool}`.
+     * Los pools de las réplicas no son beans, por lo que también los cierra al detener el contexto.
+     *
+     * Cada conexión de prueba se pide en un hilo virtual propio y se espera como máximo
+     * `health-check-timeout-ms`, para que una réplica caída no retenga durante el `connectionTimeout`
+     * de su pool al planificador que comparten las demás tareas programadas.
+     */
+    public static class ReadReplicaMonitor implements HealthIndicator, DisposableBean {
+
+        private final ReadReplicaRoutingDataSource routing;
+        private final Duration timeout;
+        private final ExecutorService checks =
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("replica-check-", 0).factory());
+
+        ReadReplicaMonitor(ReadReplicaRoutingDataSource routing, MeterRegistry meterRegistry, Duration timeout)
+                throws SQLException {
+            this.routing = routing;
+            this.timeout = timeout;
+            MicrometerMetricsTrackerFactory trackers = new MicrometerMetricsTrackerFactory(meterRegistry);
+            for (ReadReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+                replica.dataSource().unwrap(HikariDataSource.class).setMetricsTrackerFactory(trackers);
+                Gauge.builder("app.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                        .description("1 si la réplica de lectura recibe lecturas, 0 si se usa el primario en su lugar")
+                        .tag("replica", replica.name())
+                        .register(meterRegistry);
+            }
+        }
+
+        @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-ms:5000}")
+        public void check() {
+            routing.checkReplicas(checks, timeout);
+        }
+
+        /**
+         * Cierra los pools de las réplicas. Se destruye antes que el DataSource del que depende, y
+         * una lectura que llegue después se atiende en el primario al fallar la réplica.
+         */
+        @Override
+        public void destroy() throws SQLException {
+            checks.shutdownNow();
+            for (ReadReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+                replica.dataSource().unwrap(HikariDataSource.class).close();
+            }
+        }
+
+        /**
+         * Siempre reporta UP: si una réplica cae, las lecturas se atienden en el primario.
+         */
+        @Override
+        public Health health() {
+            Health.Builder builder = Health.up();
+            for (ReadReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+                builder.withDetail(replica.name(), replica.isHealthy() ? "UP" : "DOWN");
+            }
+            return builder.build();
+        }
+    }
+}
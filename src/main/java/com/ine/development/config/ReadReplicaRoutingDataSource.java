@@ -0,0 +1,245 @@
+package com.ine.development.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a réplicas de lectura y el resto al primario.
+ * Las réplicas se eligen en round-robin entre las que están sanas; si una falla al entregar una
+ * conexión se marca como caída y la petición se atiende en el primario, hasta que la verificación
+ * periódica ({@link #checkReplicas}) la vuelva a encontrar disponible.
+ *
+ * Para que cada usuario lea sus propias escrituras, las lecturas del usuario autenticado que
+ * confirmó una transacción de escritura se envían al primario durante `readYourWritesWindow`.
+ * Debe envolverse en un `LazyConnectionDataSourceProxy`, porque la conexión se decide al pedirla
+ * y el indicador de solo lectura de la transacción se publica después de iniciarla.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Map<Object, Replica> replicasByName = new HashMap<>();
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Réplica de lectura y su estado de salud.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        /** Verificación en curso, que puede seguir esperando al pool después de marcar la réplica como caída. */
+        private CompletableFuture<Void> check = CompletableFuture.completedFuture(null);
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.name(), replica.dataSource());
+            replicasByName.put(replica.name(), replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Ejecuta la acción leyendo siempre del primario, aunque la transacción sea de solo lectura.
+     * Se usa para lecturas que no toleran el retraso de replicación, como el estado de un usuario
+     * que se acaba de deshabilitar.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (Boolean.TRUE.equals(PRIMARY_ONLY.get())) {
+            return action.get();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            return PRIMARY;
+        }
+        if (Boolean.TRUE.equals(PRIMARY_ONLY.get())) {
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name();
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Entrega una conexión del destino elegido; si una réplica falla, la marca como caída y
+     * entrega una conexión del primario.
+     */
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        Replica replica = replicasByName.get(determineCurrentLookupKey());
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource().getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e);
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Verifica cada réplica con una conexión de su pool y actualiza su estado. Las verificaciones
+     * corren en `executor` y se esperan como máximo `timeout` en total: una réplica que no entrega
+     * una conexión válida en ese tiempo se marca como caída sin esperar el `connectionTimeout` de su
+     * pool, y no se vuelve a verificar hasta que termine el intento anterior.
+     */
+    public synchronized void checkReplicas(Executor executor, Duration timeout) {
+        for (Replica replica : replicas) {
+            if (replica.check.isDone()) {
+                replica.check = CompletableFuture.runAsync(() -> check(replica, timeout), executor);
+            }
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Replica replica : replicas) {
+            try {
+                replica.check.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                markDown(replica, new SQLException("Sin conexión después de " + timeout.toMillis() + " ms."));
+            } catch (ExecutionException e) {
+                log.warn("Falló la verificación de la réplica de lectura {}", replica.name(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void check(Replica replica, Duration timeout) {
+        try (Connection con = replica.dataSource().getConnection()) {
+            if (!con.isValid((int) Math.max(1, timeout.toSeconds()))) {
+                throw new SQLException("La conexión no es válida.");
+            }
+            if (!replica.healthy) {
+                log.info("Réplica de lectura {} disponible de nuevo", replica.name());
+            }
+            replica.healthy = true;
+        } catch (SQLException e) {
+            markDown(replica, e);
+        }
+    }
+
+    private static void markDown(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            log.warn("Réplica de lectura {} no disponible, se usa el primario: {}", replica.name(), e.getMessage());
+        }
+        replica.healthy = false;
+    }
+
+    /**
+     * Al confirmar una transacción de escritura, recuerda al usuario autenticado para enviar
+     * sus lecturas al primario durante la ventana de lectura de sus propias escrituras.
+     */
+    private void rememberWriter() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || auth instanceof AnonymousAuthenticationToken || !auth.isAuthenticated()
+                ? null
+                : auth.getName();
+    }
+}
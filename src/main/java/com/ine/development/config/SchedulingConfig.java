@@ -0,0 +1,15 @@
+package com.ine.development.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita la ejecución de tareas programadas (`@Scheduled`) en la aplicación.
+ * El planificador tiene `spring.task.scheduling.pool.size` hilos (por defecto Spring usa uno), para
+ * que una tarea lenta no retrase la lectura de invalidaciones, la revocación de tokens ni los
+ * latidos del flujo de cambios; con hilos virtuales cada ejecución usa su propio hilo.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,112 @@
+package com.ine.development.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.Cacheable;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Caché de segundo nivel y de consultas de Hibernate sobre JCache (Caffeine en memoria).
+ * Una entidad participa al anotarse con `@Cacheable` y `@org.hibernate.annotations.Cache`; al
+ * iniciar se crea una región acotada por tamaño y TTL para cada una, y las consultas marcadas
+ * como cacheables en {@link com.ine.development.common.interfaces.BaseRepository} usan la región
+ * de resultados. Cualquier región no declarada aquí hace fallar el arranque, de modo que ninguna
+ * caché crece sin límite. Las métricas se publican como `cache.*{cache=<región>}` desde Caffeine, sin
+ * depender de las estadísticas de Hibernate, que solo se activan en el perfil de pruebas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    /**
+     * Gestor JCache propio de Hibernate, con una región por entidad cacheable más las regiones
+     * de resultados de consultas y de marcas de actualización por tabla.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            BeanFactory beanFactory,
+            @Value("${app.cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${app.cache.entity.ttl-seconds:600}") long entityTtlSeconds,
+            @Value("${app.cache.query.max-size:1000}") long queryMaxSize,
+            @Value("${app.cache.query.ttl-seconds:60}") long queryTtlSeconds
+    ) {
+        // Un gestor por contexto: varios contextos en la misma JVM no comparten regiones.
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate:" + ObjectUtils.getIdentityHexString(beanFactory)), provider.getDefaultClassLoader());
+        for (String region : entityRegions(beanFactory)) {
+            cacheManager.createCache(region, bounded(entityMaxSize, entityTtlSeconds));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                bounded(queryMaxSize, queryTtlSeconds));
+        // Una entrada por tabla; no debe expirar antes que los resultados que valida.
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setNativeStatisticsEnabled(true));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+
+    /**
+     * Publica el tamaño, los aciertos y los desalojos de cada región.
+     */
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String region : hibernateCacheManager.getCacheNames()) {
+                CaffeineCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region)
+                        .unwrap(com.github.benmanes.caffeine.cache.Cache.class), region);
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, long ttlSeconds) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()))
+                .setNativeStatisticsEnabled(true);
+    }
+
+    /**
+     * Busca las entidades anotadas con `@Cacheable` en los paquetes de la aplicación y devuelve
+     * el nombre de su región: el indicado en `@Cache(region)` o, por omisión, el nombre de la clase.
+     */
+    private static Iterable<String> entityRegions(BeanFactory beanFactory) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Cacheable.class));
+        return AutoConfigurationPackages.get(beanFactory).stream()
+                .flatMap(pkg -> scanner.findCandidateComponents(pkg).stream())
+                .map(BeanDefinition::getBeanClassName)
+                .map(className -> {
+                    Class<?> type = ClassUtils.resolveClassName(className, ClassUtils.getDefaultClassLoader());
+                    org.hibernate.annotations.Cache cache = type.getAnnotation(org.hibernate.annotations.Cache.class);
+                    return cache != null && !cache.region().isEmpty() ? cache.region() : className;
+                })
+                .distinct()
+                .toList();
+    }
+}
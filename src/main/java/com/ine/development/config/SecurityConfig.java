@@ -3,6 +3,8 @@ package com.ine.development.config;
 import com.ine.development.components.CustomAccessDeniedHandler;
 import com.ine.development.components.CustomAuthEntryPoint;
 import com.ine.development.components.JwtAuthFilter;
+import com.ine.development.components.LoginRateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,26 +39,33 @@ public class SecurityConfig {
     private String allowedOrigins;
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
     private final CustomAuthEntryPoint authEntryPoint;
     private final CustomAccessDeniedHandler accessDeniedHandler;
+    private final PasswordHashingCalibrator hashingCalibrator;
 
     public SecurityConfig(JwtAuthFilter jwtAuthFilter,
+                          LoginRateLimitFilter loginRateLimitFilter,
                           CustomAuthEntryPoint authEntryPoint,
-                          CustomAccessDeniedHandler accessDeniedHandler) {
+                          CustomAccessDeniedHandler accessDeniedHandler,
+                          PasswordHashingCalibrator hashingCalibrator) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.loginRateLimitFilter = loginRateLimitFilter;
         this.authEntryPoint = authEntryPoint;
         this.accessDeniedHandler = accessDeniedHandler;
+        this.hashingCalibrator = hashingCalibrator;
     }
 
     /**
      * Define un bean para el codificador de contraseñas.
      * Utiliza una configuración delegada que soporta Argon2 y BCrypt, con Argon2 como predeterminado.
+     * Los parámetros de Argon2 se calibran al iniciar según `PasswordHashingCalibrator`.
      *
      * @return una instancia de `PasswordEncoder` configurada.
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        Argon2PasswordEncoder argon2 = new Argon2PasswordEncoder(16, 32, 1, 16384, 3);
+        Argon2PasswordEncoder argon2 = hashingCalibrator.settings().encoder();
         BCryptPasswordEncoder bCrypt = new BCryptPasswordEncoder(12);
         String defaultId = "argon2id";
         DelegatingPasswordEncoder delegate = new DelegatingPasswordEncoder(defaultId, Map.of(defaultId, argon2, "bcrypt", bCrypt));
@@ -78,6 +87,8 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(reg -> reg
+                        // El despacho asíncrono solo escribe la respuesta de una petición ya autorizada.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/v1/auth/login",
                                 "/v3/api-docs/**",
@@ -91,7 +102,8 @@ public class SecurityConfig {
                         .authenticationEntryPoint(authEntryPoint)
                         .accessDeniedHandler(accessDeniedHandler)
                 )
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(loginRateLimitFilter, JwtAuthFilter.class);
         return http.build();
     }
 
@@ -0,0 +1,81 @@
+package com.ine.development.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Configuración del modo de hilos virtuales (`spring.threads.virtual.enabled=true`).
+ * Spring Boot ya ejecuta en hilos virtuales las peticiones de Tomcat, el ejecutor general y las
+ * tareas programadas; esta clase añade el limitador de conexiones delante del pool de Hikari.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    /**
+     * Envuelve el DataSource en un {@link ConnectionLimitingDataSource} con tantos permisos como
+     * conexiones tiene el pool y el mismo tiempo de espera que Hikari. Se aplica antes que otros
+     * post-procesadores que envuelven el DataSource, como el enrutamiento a réplicas.
+     */
+    @Bean
+    public static ConnectionLimiterPostProcessor connectionLimiterPostProcessor(Environment env) {
+        return new ConnectionLimiterPostProcessor(env);
+    }
+
+    record ConnectionLimiterPostProcessor(Environment env) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)
+                    || !env.getProperty("app.datasource.limiter.enabled", Boolean.class, true)) {
+                return bean;
+            }
+            return new ConnectionLimitingDataSource(
+                    hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * Publica la ocupación del limitador como `app.datasource.limiter.*`.
+     */
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (unwrap(dataSource) instanceof ConnectionLimitingDataSource limited) {
+                Gauge.builder("app.datasource.limiter.waiting", limited, ConnectionLimitingDataSource::waiting)
+                        .description("Hilos esperando un permiso antes de pedir conexión al pool")
+                        .register(registry);
+                Gauge.builder("app.datasource.limiter.available", limited, ConnectionLimitingDataSource::available)
+                        .description("Permisos de conexión disponibles")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static DataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConnectionLimitingDataSource.class)
+                    ? dataSource.unwrap(ConnectionLimitingDataSource.class)
+                    : dataSource;
+        } catch (SQLException e) {
+            return dataSource;
+        }
+    }
+}
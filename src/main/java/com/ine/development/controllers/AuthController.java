@@ -2,13 +2,15 @@ package com.ine.development.controllers;
 
 import com.ine.development.common.ResponseFactory;
 import com.ine.development.common.dto.ApiResponse;
-import com.ine.development.models.User;
 import com.ine.development.models.dto.LoginRequest;
 import com.ine.development.services.AuthService;
 import com.ine.development.services.JwtService;
+import com.ine.development.services.LoginRateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Tag(name = "Autenticación", description = "Operaciones de autenticación y autorización")
 @RestController
@@ -24,27 +27,33 @@ public class AuthController {
 
     private final AuthService authService;
     private final JwtService jwtService;
+    private final TaskExecutor loginExecutor;
+    private final LoginRateLimiter rateLimiter;
 
-    public AuthController(AuthService authService, JwtService jwtService) {
+    public AuthController(AuthService authService,
+                          JwtService jwtService,
+                          @Qualifier("loginExecutor") TaskExecutor loginExecutor,
+                          LoginRateLimiter rateLimiter) {
         this.authService = authService;
         this.jwtService = jwtService;
+        this.loginExecutor = loginExecutor;
+        this.rateLimiter = rateLimiter;
     }
 
     @Operation(summary = "Autenticación", description = "Autentica un usuario y genera un token de autenticación.")
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> login(@RequestBody @Valid LoginRequest req) {
-        User user = authService.authenticate(req.email(), req.password());
-
-        String token = jwtService.generateToken(
-                String.valueOf(user.getId()),
-                Map.of("username", user.getName(), "email", user.getEmail())
-        );
-
-        Map<String, Object> payload = Map.of(
-                "token", token,
-                "user", user
-        );
-        return ResponseFactory.ok("Inicio de sesión exitoso.", payload);
-
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, Object>>>> login(@RequestBody @Valid LoginRequest req) {
+        rateLimiter.checkLogin(req.email());
+        return CompletableFuture
+                .supplyAsync(() -> authService.authenticate(req.email(), req.password()), loginExecutor)
+                .thenApply(user -> {
+                    String token = jwtService.generateToken(user);
+
+                    Map<String, Object> payload = Map.of(
+                            "token", token,
+                            "user", user
+                    );
+                    return ResponseFactory.ok("Inicio de sesión exitoso.", payload);
+                });
     }
 }
@@ -1,20 +1,40 @@
 package com.ine.development.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ine.development.common.ConditionalRequests;
 import com.ine.development.common.ResponseFactory;
 import com.ine.development.common.dto.ApiResponse;
+import com.ine.development.common.dto.BulkStatusResult;
+import com.ine.development.common.dto.ChangeSet;
+import com.ine.development.common.dto.CursorPage;
+import com.ine.development.common.dto.StatusChangeRequest;
 import com.ine.development.common.interfaces.OnCreate;
 import com.ine.development.common.interfaces.OnUpdate;
+import com.ine.development.components.JwtAuthFilter;
 import com.ine.development.models.User;
+import com.ine.development.models.dto.ImportReport;
 import com.ine.development.models.dto.UserDto;
+import com.ine.development.models.dto.UserView;
+import com.ine.development.services.UserChangeFeed;
+import com.ine.development.services.UserImportService;
 import com.ine.development.services.UserService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @Tag(name = "Usuarios", description = "Operaciones sobre usuarios")
@@ -24,31 +44,92 @@ import java.util.List;
 public class UserController {
 
     private final UserService userServices;
+    private final UserImportService userImportService;
+    private final UserChangeFeed userChangeFeed;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userServices) {
+    public UserController(UserService userServices, UserImportService userImportService,
+                          UserChangeFeed userChangeFeed, ObjectMapper objectMapper) {
         this.userServices = userServices;
+        this.userImportService = userImportService;
+        this.userChangeFeed = userChangeFeed;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Listar usuarios", description = "Obtiene una lista de todos los usuarios. Se puede filtrar por estado (activo/inactivo).")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<User>>> findAllUsers(
+    public ResponseEntity<ApiResponse<List<UserView>>> findAllUsers(
             @Parameter(description = "Estados a filtrar (0=Inactivo, 1=Activo). Ej: ?status=1,0")
             @RequestParam(name = "status", required = false) List<Integer> status
     ) {
-        List<User> data = (status == null || status.isEmpty())
+        List<UserView> data = (status == null || status.isEmpty())
                 ? userServices.findAll()
                 : userServices.findAll(status.toArray(Integer[]::new));
 
         return ResponseFactory.ok("Usuarios obtenidos correctamente.", data);
     }
 
+    @Operation(summary = "Listar usuarios en streaming", description = "Obtiene todos los usuarios escribiendo la respuesta de forma incremental, con memoria constante sin importar el número de filas.")
+    @GetMapping(params = {"stream=true", "!limit"})
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(
+            @Parameter(description = "Estados a filtrar (0=Inactivo, 1=Activo). Ej: ?status=1,0")
+            @RequestParam(name = "status", required = false) List<Integer> status
+    ) {
+        Integer[] statuses = (status == null) ? new Integer[0] : status.toArray(Integer[]::new);
+        return ResponseFactory.<UserView>okStream(objectMapper, "Usuarios obtenidos correctamente.",
+                sink -> userServices.streamAll(sink, statuses));
+    }
+
+    @Operation(summary = "Listar usuarios por páginas", description = "Obtiene una página de usuarios ordenados por id. Para la siguiente página se envía el `nextCursor` recibido en `after`.")
+    @GetMapping(params = "limit")
+    public ResponseEntity<ApiResponse<CursorPage<UserView, Long>>> findUsersPage(
+            @Parameter(description = "Número máximo de usuarios por página (1-500)")
+            @RequestParam(name = "limit") int limit,
+            @Parameter(description = "Cursor: id del último usuario de la página anterior")
+            @RequestParam(name = "after", required = false) Long after,
+            @Parameter(description = "Estados a filtrar (0=Inactivo, 1=Activo). Ej: ?status=1,0")
+            @RequestParam(name = "status", required = false) List<Integer> status
+    ) {
+        Integer[] statuses = (status == null) ? new Integer[0] : status.toArray(Integer[]::new);
+        CursorPage<UserView, Long> page = userServices.findPage(after, limit, statuses);
+        return ResponseFactory.ok("Usuarios obtenidos correctamente.", page);
+    }
+
+    @Operation(summary = "Sincronizar cambios de usuarios", description = "Obtiene los usuarios creados, modificados o deshabilitados después de la marca de agua, en cualquier estado. Para la siguiente sincronización se envía el `watermark` recibido en `since`.")
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangeSet<UserView>>> findChanges(
+            @Parameter(description = "Marca de agua de la sincronización anterior; sin ella se obtienen todos los usuarios")
+            @RequestParam(name = "since", required = false) String since,
+            @Parameter(description = "Número máximo de usuarios por bloque (1-500)")
+            @RequestParam(name = "limit", defaultValue = "500") int limit
+    ) {
+        ChangeSet<UserView> changes = userServices.findChanges(since, limit);
+        return ResponseFactory.ok("Cambios obtenidos correctamente.", changes);
+    }
+
+    @Operation(summary = "Suscribirse a los cambios de usuarios", description = "Flujo Server-Sent Events con los eventos `created`, `updated`, `disabled` y `enabled`. Al reconectar se reenvían los eventos posteriores a `Last-Event-ID`; si no es posible se envía `reset` y el cliente debe recargar la lista. Los cambios hechos en otra instancia llegan al leer el registro de invalidaciones, solo con los ids.")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
+            @Parameter(description = "Id del último evento recibido, para reanudar el flujo")
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(hidden = true)
+            @RequestAttribute(JwtAuthFilter.CLAIMS_ATTRIBUTE) Claims claims
+    ) {
+        return userChangeFeed.subscribe(lastEventId, claims);
+    }
+
     @Operation(summary = "Obtener usuario por ID", description = "Obtiene un usuario por su ID.")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<User>> findById(
+    public ResponseEntity<ApiResponse<UserView>> findById(
             @Parameter(description = "Filtrar por el id del usuario")
-            @PathVariable Long id){
-        User data = userServices.findById(id);
-        return ResponseFactory.ok("Usuario obtenido correctamente.", data);
+            @PathVariable Long id,
+            WebRequest request){
+        UserView data = userServices.findById(id);
+        String etag = ConditionalRequests.etag(data.version());
+        if (request.checkNotModified(etag, ConditionalRequests.lastModified(data.updatedAt()))) {
+            return null;
+        }
+        return ResponseFactory.okVersioned("Usuario obtenido correctamente.", data, etag, data.updatedAt());
     }
 
     @Operation(summary = "Crear un usuario", description = "Crea un nuevo usuario.")
@@ -58,15 +139,34 @@ public class UserController {
         return ResponseFactory.createdWithBody("Usuario creado correctamente.", saved);
     }
 
+    @Operation(summary = "Importar usuarios", description = "Crea usuarios de forma masiva desde CSV (encabezado name,email,password,phone) o NDJSON y devuelve el resultado de cada fila.")
+    @PostMapping(value = "/import", consumes = {UserImportService.TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<ImportReport>> importUsers(HttpServletRequest request) throws IOException {
+        ImportReport report = userImportService.importUsers(
+                request.getInputStream(), MediaType.parseMediaType(request.getContentType()));
+        return ResponseFactory.ok(report.truncated() ? "Importación interrumpida." : "Importación finalizada.", report);
+    }
+
     @Operation(summary = "Actualizar un usuario", description = "Actualiza un usuario existente.")
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<User>> update(
             @Parameter(description = "Actualiza por el id del usuario")
             @PathVariable Long id,
             @Validated(OnUpdate.class)
-            @RequestBody UserDto req){
-        User updated = userServices.update(id, req);
-        return ResponseFactory.ok("Usuario actualizado correctamente.", updated);
+            @RequestBody UserDto req,
+            @Parameter(description = "ETag de la versión que se modifica; si el usuario cambió se responde 409")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        User updated = userServices.update(id, req, ConditionalRequests.expectedVersion(ifMatch));
+        return ResponseFactory.okVersioned("Usuario actualizado correctamente.", updated,
+                ConditionalRequests.etag(updated.getVersion()), updated.getUpdatedAt());
+    }
+
+    @Operation(summary = "Cambiar el estado de varios usuarios", description = "Habilita o deshabilita hasta 10000 usuarios en una sola transacción y devuelve los ids modificados y los inexistentes.")
+    @PatchMapping("/status")
+    public ResponseEntity<ApiResponse<BulkStatusResult<Long>>> changeStatus(
+            @Valid @RequestBody StatusChangeRequest<Long> req){
+        BulkStatusResult<Long> result = userServices.changeStatus(req.ids(), req.status());
+        return ResponseFactory.ok("Estado actualizado correctamente.", result);
     }
 
     @Operation(summary = "Desactivar un usuario", description = "Desactiva un usuario existente.")
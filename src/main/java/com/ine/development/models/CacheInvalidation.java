@@ -0,0 +1,45 @@
+package com.ine.development.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada del registro de invalidaciones de caché compartido entre instancias.
+ * Una clave nula invalida la caché completa.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "cache_invalidations", indexes = @Index(name = "ix_cache_invalidations_created_at_id", columnList = "created_at, id"))
+public class CacheInvalidation {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cache_invalidations_seq")
+    @SequenceGenerator(name = "cache_invalidations_seq", sequenceName = "cache_invalidations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "cache_name", nullable = false, length = 50)
+    private String cacheName;
+
+    @Column(name = "cache_key", length = 200)
+    private String cacheKey;
+
+    @Column(name = "origin", nullable = false, length = 16)
+    private String origin;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public CacheInvalidation(String cacheName, String cacheKey, String origin, LocalDateTime createdAt) {
+        this.cacheName = cacheName;
+        this.cacheKey = cacheKey;
+        this.origin = origin;
+        this.createdAt = createdAt;
+    }
+}
@@ -9,26 +9,38 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.UQ_NAME, columnNames = "name"),
+        @UniqueConstraint(name = User.UQ_EMAIL, columnNames = "email")
+}, indexes = @Index(name = "ix_users_updated_at_id", columnList = "updated_at, id"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
 
+    public static final String UQ_NAME = "uq_users_name";
+    public static final String UQ_EMAIL = "uq_users_email";
+
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
 
-    @Column(name = "name", unique = true, nullable = false)
+    @Column(name = "name", nullable = false)
     private String name;
 
-    @Column(name = "email", unique = true, nullable = false)
+    @Column(name = "email", nullable = false)
     private String email;
 
     @Column(name = "phone", nullable = false)
@@ -39,16 +51,25 @@ public class User {
     private String password;
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
-    @Column(name = "status", nullable = false, insertable = false)
-    private int status;
+    @Column(name = "status", nullable = false)
+    private int status = 1;
+
+    @JsonIgnore
+    @Column(name = "token_epoch", nullable = false)
+    private int tokenEpoch;
+
+    @Version
+    @JsonIgnore
+    @Column(name = "version", nullable = false)
+    private long version;
 
     @CreationTimestamp
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
-    @Column(name = "created_at", nullable = false, insertable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @CreationTimestamp
+    @UpdateTimestamp
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
-    @Column(name = "updated_at", nullable = false, insertable = false)
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,10 @@
+package com.ine.development.models.dto;
+
+/**
+ * Cantidad de hashes Argon2id guardados con los mismos parámetros.
+ *
+ * @param parameters el inicio del hash hasta sus parámetros, p. ej. `{argon2id}$argon2id$v=19$m=16384,t=3,p=1$`.
+ * @param count      los usuarios cuyo hash usa esos parámetros.
+ */
+public record HashParameterCount(String parameters, long count) {
+}
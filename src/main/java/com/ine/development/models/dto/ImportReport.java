@@ -0,0 +1,33 @@
+package com.ine.development.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Reporte de una importación masiva.
+ *
+ * @param total     el número de filas leídas.
+ * @param created   el número de registros creados.
+ * @param rejected  el número de filas rechazadas.
+ * @param truncated indica si la importación se detuvo antes del final del archivo.
+ * @param reason    el motivo de la detención, si se detuvo.
+ * @param rows      el resultado de cada fila.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportReport(int total, int created, int rejected, boolean truncated, String reason,
+                           List<ImportRowResult> rows) {
+
+    public static ImportReport of(List<ImportRowResult> rows) {
+        return truncated(rows, null);
+    }
+
+    /**
+     * Reporte de una importación que se detuvo antes del final del archivo. Las filas leídas
+     * hasta ese momento conservan su resultado, porque sus bloques ya se confirmaron.
+     */
+    public static ImportReport truncated(List<ImportRowResult> rows, String reason) {
+        int created = (int) rows.stream().filter(ImportRowResult::created).count();
+        return new ImportReport(rows.size(), created, rows.size() - created, reason != null, reason, List.copyOf(rows));
+    }
+}
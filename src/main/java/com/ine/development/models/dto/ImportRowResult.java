@@ -0,0 +1,23 @@
+package com.ine.development.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Resultado de una fila de una importación masiva.
+ *
+ * @param row     el número de fila en el archivo (la primera fila de datos es 1).
+ * @param created indica si el registro se creó.
+ * @param id      el id asignado, si se creó.
+ * @param message el motivo del rechazo, si no se creó.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportRowResult(int row, boolean created, Long id, String message) {
+
+    public static ImportRowResult created(int row, Long id) {
+        return new ImportRowResult(row, true, id, null);
+    }
+
+    public static ImportRowResult rejected(int row, String message) {
+        return new ImportRowResult(row, false, null, message);
+    }
+}
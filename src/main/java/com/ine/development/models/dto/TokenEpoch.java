@@ -0,0 +1,14 @@
+package com.ine.development.models.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Época mínima válida de los tokens de un usuario. Los tokens emitidos con una época
+ * menor a la registrada se consideran revocados.
+ *
+ * @param userId    el identificador del usuario.
+ * @param epoch     la época actual de tokens del usuario.
+ * @param updatedAt la fecha de la última modificación del usuario.
+ */
+public record TokenEpoch(Long userId, int epoch, LocalDateTime updatedAt) {
+}
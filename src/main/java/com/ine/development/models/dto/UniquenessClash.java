@@ -0,0 +1,19 @@
+package com.ine.development.models.dto;
+
+/**
+ * Resultado de la validación de unicidad de un usuario: cuántos otros usuarios
+ * ya usan el nombre o el correo indicados.
+ *
+ * @param names  usuarios con el mismo nombre.
+ * @param emails usuarios con el mismo correo.
+ */
+public record UniquenessClash(long names, long emails) {
+
+    public boolean nameTaken() {
+        return names > 0;
+    }
+
+    public boolean emailTaken() {
+        return emails > 0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ine.development.models.dto;
+
+import com.ine.development.models.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Instantánea inmutable del usuario autenticado que se guarda en la caché de principales.
+ * Contiene solo los datos necesarios para construir la autenticación de cada petición,
+ * sin mantener referencias a la entidad JPA ni a la contraseña.
+ *
+ * @param id          el identificador del usuario.
+ * @param name        el nombre de usuario.
+ * @param status      el estado del usuario (0=Inactivo, 1=Activo).
+ * @param authorities los permisos otorgados al usuario.
+ */
+public record UserPrincipal(
+        Long id,
+        String name,
+        int status,
+        List<GrantedAuthority> authorities
+) {
+
+    public UserPrincipal {
+        authorities = List.copyOf(authorities);
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getName(),
+                user.getStatus(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+    }
+
+    public boolean isActive() {
+        return status == 1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ine.development.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ine.development.models.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura de un usuario con las columnas que expone la API.
+ * Se obtiene directamente de la consulta, sin cargar la entidad en el contexto de persistencia
+ * ni leer el hash de la contraseña.
+ *
+ * @param id        el identificador del usuario.
+ * @param name      el nombre de usuario.
+ * @param email     el correo electrónico.
+ * @param phone     el número de teléfono.
+ * @param status    el estado del usuario (0=Inactivo, 1=Activo).
+ * @param createdAt la fecha de creación.
+ * @param updatedAt la fecha de la última modificación.
+ * @param version   la versión del usuario; no se serializa, se envía como `ETag`.
+ */
+public record UserView(
+        Long id,
+        String name,
+        String email,
+        String phone,
+        int status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        @JsonIgnore long version
+) {
+
+    public static UserView from(User user) {
+        return new UserView(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getStatus(),
+                user.getCreatedAt(),
+                user.getUpdatedAt(),
+                user.getVersion()
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package com.ine.development.repositories;
+
+import com.ine.development.models.CacheInvalidation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    List<CacheInvalidation> findByCreatedAtGreaterThanOrCreatedAtAndIdGreaterThanOrderByCreatedAtAscIdAsc(
+            LocalDateTime since, LocalDateTime sameInstant, Long afterId, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidation c where c.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
@@ -2,20 +2,113 @@ package com.ine.development.repositories;
 
 import com.ine.development.common.interfaces.BaseRepository;
 import com.ine.development.models.User;
+import com.ine.development.models.dto.HashParameterCount;
+import com.ine.development.models.dto.TokenEpoch;
+import com.ine.development.models.dto.UniquenessClash;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends BaseRepository<User, Long> {
 
-    boolean existsByName(String name);
-    boolean existsByEmail(String email);
-    boolean existsByNameAndIdNot(String name, Long id);
-    boolean existsByEmailAndIdNot(String email, Long id);
+    /**
+     * Cuenta en una sola consulta los otros usuarios que ya usan el nombre o el correo.
+     *
+     * @param name  nombre a validar (puede ser nulo).
+     * @param email correo a validar (puede ser nulo).
+     * @param id    id del usuario que se actualiza, o nulo en la creación.
+     */
+    @Query("select new com.ine.development.models.dto.UniquenessClash(" +
+            "count(case when u.name = :name then 1 end), count(case when u.email = :email then 1 end)) " +
+            "from User u where (u.name = :name or u.email = :email) and (:id is null or u.id <> :id)")
+    UniquenessClash findUniquenessClash(String name, String email, Long id);
 
     Optional<User> findByEmail(String email);
     Optional<User> findByName(String name);
     Optional<User> findByIdAndStatus(Long id, Integer status);
 
-}
\ No newline at end of file
+    /**
+     * Lee el usuario de la base de datos sin consultar la caché de segundo nivel, que pudo llenarse
+     * desde una réplica atrasada, y reemplaza la entrada cacheada con la fila leída.
+     */
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findUncachedById(Long id);
+
+    @Query("select new com.ine.development.models.dto.TokenEpoch(u.id, u.tokenEpoch, u.updatedAt) " +
+            "from User u where u.tokenEpoch > 0")
+    List<TokenEpoch> findTokenEpochs();
+
+    @Query("select new com.ine.development.models.dto.TokenEpoch(u.id, u.tokenEpoch, u.updatedAt) " +
+            "from User u where u.tokenEpoch > 0 and u.updatedAt > :since")
+    List<TokenEpoch> findTokenEpochsUpdatedAfter(LocalDateTime since);
+
+    @Query("select new com.ine.development.models.dto.TokenEpoch(u.id, u.tokenEpoch, u.updatedAt) " +
+            "from User u where u.id in :ids")
+    List<TokenEpoch> findTokenEpochsByIdIn(Collection<Long> ids);
+
+    @Query("select u.tokenEpoch from User u where u.id = :id")
+    Optional<Integer> findTokenEpochById(Long id);
+
+    long countByPasswordNotLike(String pattern);
+
+    /**
+     * Agrupa los hashes Argon2id por sus parámetros (el texto hasta el `$` que sigue a `m=..,t=..,p=..`),
+     * para contar los que no alcanzan los mínimos sin cargar cada hash.
+     */
+    @Query("select new com.ine.development.models.dto.HashParameterCount(" +
+            "substring(u.password, 1, locate('$', u.password, 26)), count(u)) " +
+            "from User u where u.password like '{argon2id}$argon2id$%' " +
+            "group by substring(u.password, 1, locate('$', u.password, 26))")
+    List<HashParameterCount> countArgon2HashesByParameters();
+
+    @Query("select u.name from User u where u.name in :names")
+    List<String> findExistingNames(Collection<String> names);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Reemplaza el hash de la contraseña solo si no cambió desde que se leyó,
+     * para no sobrescribir un cambio de contraseña concurrente.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordHash(Long id, String oldHash, String newHash);
+
+    /**
+     * Deshabilita un usuario activo en una sola sentencia, sin cargar la entidad,
+     * e incrementa su época de tokens para revocar los tokens emitidos.
+     *
+     * @return 1 si el usuario se deshabilitó, 0 si no existe o ya estaba inactivo.
+     */
+    @Modifying
+    @Query("update User u set u.status = 0, u.tokenEpoch = u.tokenEpoch + 1, u.version = u.version + 1, " +
+            "u.updatedAt = :now where u.id = :id and u.status = 1")
+    int disableActive(Long id, LocalDateTime now);
+
+    /**
+     * Cambia el estado de un bloque de usuarios e incrementa su época de tokens, su versión y su
+     * fecha de actualización, igual que {@link #disableActive}.
+     */
+    @Override
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.status = :status, u.tokenEpoch = u.tokenEpoch + 1, u.version = u.version + 1, " +
+            "u.updatedAt = :now where u.id in :ids and u.status <> :status")
+    int updateStatus(Collection<Long> ids, Integer status, LocalDateTime now);
+
+}
@@ -2,22 +2,48 @@ package com.ine.development.services;
 
 import com.ine.development.models.User;
 import com.ine.development.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class AuthService {
 
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final PasswordRehashService rehashService;
+    private final UnknownLoginCache unknownLogins;
+    private final Timer lookupTimer;
+    private final Timer verifyTimer;
+    private volatile String dummyHash;
 
-    public AuthService(PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public AuthService(PasswordEncoder passwordEncoder,
+                       UserRepository userRepository,
+                       PasswordRehashService rehashService,
+                       UnknownLoginCache unknownLogins,
+                       MeterRegistry meterRegistry) {
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
+        this.rehashService = rehashService;
+        this.unknownLogins = unknownLogins;
+        this.lookupTimer = authTimer("lookup", meterRegistry);
+        this.verifyTimer = authTimer("verify", meterRegistry);
+    }
+
+    /**
+     * Timer `security.auth.authenticate` de una fase del inicio de sesión: búsqueda del usuario o verificación del hash.
+     */
+    private static Timer authTimer(String phase, MeterRegistry registry) {
+        return Timer.builder("security.auth.authenticate")
+                .description("Fases del inicio de sesión")
+                .tag("phase", phase)
+                .register(registry);
     }
 
     public String encodePassword(String rawPassword) {
@@ -25,21 +51,45 @@ public class AuthService {
     }
 
 
+    /**
+     * Autentica por nombre o correo. Los logins inexistentes se recuerdan en `UnknownLoginCache`
+     * para rechazar los siguientes intentos sin consultar la base de datos; en ambos casos se
+     * verifica la contraseña contra un hash ficticio para que el tiempo de respuesta no revele
+     * si el login existe.
+     */
     @Transactional(readOnly = true)
     public User authenticate(String login, String rawPassword) {
-        User user = findByLogin(login);
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+        String key = UnknownLoginCache.normalize(login);
+        Optional<User> found = lookupTimer.record(() -> unknownLogins.isUnknown(key) ? Optional.empty() : findByLogin(key));
+        if (found.isEmpty()) {
+            unknownLogins.markUnknown(key);
+            verifyTimer.record(() -> passwordEncoder.matches(rawPassword, dummyHash()));
+            throw new BadCredentialsException("Credenciales inválidas.");
+        }
+        User user = found.get();
+        if (!verifyTimer.record(() -> passwordEncoder.matches(rawPassword, user.getPassword()))) {
             throw new BadCredentialsException("Credenciales inválidas.");
         }
+        rehashService.rehashIfNeeded(user, rawPassword);
         return user;
     }
 
 
-    private User findByLogin(String login) {
-        boolean isEmail = login.contains("@");
-        return (isEmail
-                ? userRepository.findByEmail(login)
-                : userRepository.findByName(login))
-                .orElseThrow(() -> new BadCredentialsException("Credenciales inválidas."));
+    private Optional<User> findByLogin(String key) {
+        return UnknownLoginCache.isEmail(key)
+                ? userRepository.findByEmail(key)
+                : userRepository.findByName(key);
+    }
+
+    /**
+     * Hash con los parámetros actuales que se verifica cuando el login no existe.
+     */
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
     }
 }
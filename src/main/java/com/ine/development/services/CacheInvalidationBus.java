@@ -0,0 +1,218 @@
+package com.ine.development.services;
+
+import com.ine.development.config.ReadReplicaRoutingDataSource;
+import com.ine.development.models.CacheInvalidation;
+import com.ine.development.repositories.CacheInvalidationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Propaga las invalidaciones de las cachés en memoria entre las instancias de la aplicación usando
+ * solo la base de datos compartida (`app.cache.invalidation.enabled=true`).
+ *
+ * Quien invalida una entrada agrega una fila a `cache_invalidations` en la misma transacción que
+ * el cambio, de modo que la invalidación existe si y solo si el cambio se confirmó. Cada instancia
+ * lee periódicamente las filas nuevas con una consulta por el índice `(created_at, id)`, ignora las
+ * propias y aplica las de las demás agrupadas por caché. La fecha de creación se asigna antes de
+ * confirmar y con el reloj de cada instancia, por lo que cada lectura vuelve a revisar los últimos
+ * `overlap-ms` y descarta las filas ya aplicadas. Las filas más antiguas que `retention-ms` se borran.
+ * El retraso entre la escritura y la aplicación se publica como `app.cache.invalidation.lag`.
+ */
+@Service
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    /**
+     * Acción que aplica en una caché local las invalidaciones hechas por otra instancia.
+     */
+    public interface Evictor {
+
+        /**
+         * @param keys las claves invalidadas, en el orden en que se escribieron y con repeticiones.
+         */
+        void evict(Collection<String> keys);
+
+        void evictAll();
+    }
+
+    private final CacheInvalidationRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration overlap;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxKeys;
+    private final Timer lag;
+
+    /** Identifica las filas escritas por esta instancia. */
+    private final String origin = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Map<String, Evictor> evictors = new ConcurrentHashMap<>();
+    private final Map<String, Counter> applied = new ConcurrentHashMap<>();
+    /** Ids ya aplicados dentro de la ventana de solapamiento. */
+    private final Map<Long, LocalDateTime> seen = new HashMap<>();
+    private LocalDateTime watermark = LocalDateTime.now();
+
+    public CacheInvalidationBus(
+            CacheInvalidationRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.invalidation.enabled:false}") boolean enabled,
+            @Value("${app.cache.invalidation.overlap-ms:10000}") long overlapMs,
+            @Value("${app.cache.invalidation.retention-ms:600000}") long retentionMs,
+            @Value("${app.cache.invalidation.batch-size:1000}") int batchSize,
+            @Value("${app.cache.invalidation.max-keys:100}") int maxKeys
+    ) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.overlap = Duration.ofMillis(overlapMs);
+        this.retention = Duration.ofMillis(retentionMs);
+        this.batchSize = batchSize;
+        this.maxKeys = maxKeys;
+        this.lag = Timer.builder("app.cache.invalidation.lag")
+                .description("Tiempo entre la escritura de una invalidación y su aplicación en esta instancia")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra la acción que aplica las invalidaciones remotas de una caché.
+     *
+     * @param cache   el nombre de la caché.
+     * @param evictor la acción que invalida las entradas locales.
+     */
+    public void register(String cache, Evictor evictor) {
+        evictors.put(cache, evictor);
+    }
+
+    /**
+     * Agrega al registro las claves invalidadas, en la transacción activa. Con más de `max-keys`
+     * claves se escribe una sola fila que invalida la caché completa en las demás instancias.
+     *
+     * @param cache el nombre de la caché.
+     * @param keys  las claves invalidadas.
+     */
+    public void publish(String cache, Collection<?> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<CacheInvalidation> rows = keys.size() > maxKeys
+                ? List.of(new CacheInvalidation(cache, null, origin, now))
+                : keys.stream()
+                        .map(key -> new CacheInvalidation(cache, String.valueOf(key), origin, now))
+                        .toList();
+        repository.saveAll(rows);
+    }
+
+    /**
+     * Lee del primario las invalidaciones posteriores a la marca de agua menos el solapamiento,
+     * por bloques de `batch-size`, y aplica las de otras instancias que no se hayan aplicado.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-ms:1000}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime since = watermark.minus(overlap);
+        seen.values().removeIf(createdAt -> createdAt.isBefore(since));
+        LocalDateTime afterInstant = since;
+        long afterId = Long.MIN_VALUE;
+        List<CacheInvalidation> rows;
+        do {
+            LocalDateTime instant = afterInstant;
+            long id = afterId;
+            rows = ReadReplicaRoutingDataSource.onPrimary(() -> repository
+                    .findByCreatedAtGreaterThanOrCreatedAtAndIdGreaterThanOrderByCreatedAtAscIdAsc(
+                            instant, instant, id, Limit.of(batchSize)));
+            apply(rows);
+            if (!rows.isEmpty()) {
+                CacheInvalidation last = rows.get(rows.size() - 1);
+                afterInstant = last.getCreatedAt();
+                afterId = last.getId();
+            }
+        } while (rows.size() == batchSize);
+    }
+
+    private void apply(List<CacheInvalidation> rows) {
+        Map<String, List<String>> keys = new HashMap<>();
+        Set<String> all = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (CacheInvalidation row : rows) {
+            if (row.getCreatedAt().isAfter(watermark)) {
+                // sin pasar del reloj local, para no saltarse filas de una instancia atrasada
+                watermark = row.getCreatedAt().isAfter(now) ? now : row.getCreatedAt();
+            }
+            if (seen.putIfAbsent(row.getId(), row.getCreatedAt()) != null || origin.equals(row.getOrigin())) {
+                continue;
+            }
+            lag.record(Duration.between(row.getCreatedAt(), now).abs());
+            if (row.getCacheKey() == null) {
+                all.add(row.getCacheName());
+            } else {
+                keys.computeIfAbsent(row.getCacheName(), k -> new ArrayList<>()).add(row.getCacheKey());
+            }
+        }
+        all.forEach(cache -> evict(cache, null));
+        keys.forEach((cache, values) -> {
+            if (!all.contains(cache)) {
+                evict(cache, values);
+            }
+        });
+    }
+
+    private void evict(String cache, List<String> keys) {
+        Evictor evictor = evictors.get(cache);
+        if (evictor == null) {
+            log.debug("Invalidación para la caché desconocida {}", cache);
+            return;
+        }
+        if (keys == null) {
+            evictor.evictAll();
+        } else {
+            evictor.evict(keys);
+        }
+        applied.computeIfAbsent(cache, name -> Counter.builder("app.cache.invalidation.applied")
+                        .description("Invalidaciones de otras instancias aplicadas en esta instancia")
+                        .tag("cache", name)
+                        .register(meterRegistry))
+                .increment(keys == null ? 1 : keys.size());
+    }
+
+    /**
+     * Borra las invalidaciones más antiguas que el período de retención. Todas las instancias lo
+     * ejecutan; el borrado es idempotente.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.prune-ms:60000}")
+    public void prune() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = repository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("Se borraron {} invalidaciones de caché antiguas", deleted);
+        }
+    }
+}
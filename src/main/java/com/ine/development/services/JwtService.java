@@ -1,26 +1,68 @@
 package com.ine.development.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ine.development.models.User;
+import com.ine.development.models.dto.UserPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
     private final SecretKey key;
     private final Long expirationMs;
+    private final boolean stateless;
+    private final JwtParser parser;
+    private final Cache<ByteBuffer, Jws<Claims>> verifiedTokens;
+    private final MeterRegistry meterRegistry;
+    private final Timer parseHit;
+    private final Timer parseMiss;
 
     public JwtService(
             @Value("${security.jwt.secret}") String secret,
-            @Value("${security.jwt.expiration-ms}") long expirationMs
+            @Value("${security.jwt.expiration-ms}") long expirationMs,
+            @Value("${security.jwt.verified-cache.max-size:10000}") long verifiedCacheSize,
+            @Value("${security.jwt.stateless:false}") boolean stateless,
+            MeterRegistry meterRegistry
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.stateless = stateless;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpires())
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.parseHit = parseTimer("hit", meterRegistry);
+        this.parseMiss = parseTimer("miss", meterRegistry);
+    }
+
+    private static Timer parseTimer(String cache, MeterRegistry registry) {
+        return Timer.builder("security.jwt.parse")
+                .description("Verificación y decodificación de tokens JWT")
+                .tag("cache", cache)
+                .register(registry);
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -35,11 +77,146 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Genera el token de acceso de un usuario. En modo sin estado (`security.jwt.stateless=true`)
+     * el token incluye además el estado, los roles y la época de tokens del usuario, para que
+     * el filtro JWT pueda autenticar la petición sin consultar la base de datos.
+     *
+     * @param user el usuario autenticado.
+     * @return el token firmado.
+     */
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("username", user.getName());
+        claims.put("email", user.getEmail());
+        if (stateless) {
+            claims.put("status", user.getStatus());
+            claims.put("roles", UserPrincipal.from(user).authorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList());
+            claims.put("epoch", user.getTokenEpoch());
+        }
+        return generateToken(String.valueOf(user.getId()), claims);
+    }
+
+    /**
+     * Construye el principal a partir de los claims de un token emitido en modo sin estado.
+     *
+     * @param claims los claims ya verificados.
+     * @return el principal, o vacío si el token no contiene los claims del modo sin estado.
+     */
+    public Optional<UserPrincipal> principalFromClaims(Claims claims) {
+        Integer status = claims.get("status", Integer.class);
+        Integer epoch = claims.get("epoch", Integer.class);
+        List<?> roles = claims.get("roles", List.class);
+        if (status == null || epoch == null || roles == null) {
+            return Optional.empty();
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .<GrantedAuthority>map(r -> new SimpleGrantedAuthority(String.valueOf(r)))
+                .toList();
+        return Optional.of(new UserPrincipal(
+                Long.valueOf(claims.getSubject()),
+                claims.get("username", String.class),
+                status,
+                authorities
+        ));
+    }
+
+    public static int epochOf(Claims claims) {
+        Integer epoch = claims.get("epoch", Integer.class);
+        return epoch == null ? 0 : epoch;
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    /**
+     * Verifica y decodifica un token. Los tokens ya verificados se guardan en una caché
+     * indexada por el SHA-256 del token hasta su propia fecha de expiración, de modo que
+     * un acierto evita tanto el decodificado como la verificación de la firma.
+     * El resultado devuelto es compartido y no debe modificarse.
+     * La latencia se publica como `security.jwt.parse{cache}` y los rechazos como
+     * `security.jwt.parse.failures{reason}`.
+     *
+     * @param token el token JWT firmado.
+     * @return el token verificado con sus claims.
+     * @throws JwtException si el token es inválido o expiró.
+     */
     public Jws<Claims> parse(String token) throws JwtException {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        long start = System.nanoTime();
+        ByteBuffer digest = digest(token);
+        Jws<Claims> cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            parseHit.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        try {
+            Jws<Claims> jws = parser.parseClaimsJws(token);
+            if (jws.getBody().getExpiration() != null) {
+                verifiedTokens.put(digest, jws);
+            }
+            return jws;
+        } catch (RuntimeException e) {
+            meterRegistry.counter("security.jwt.parse.failures", "reason", failureReason(e)).increment();
+            throw e;
+        } finally {
+            parseMiss.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String failureReason(RuntimeException e) {
+        if (e instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (e instanceof io.jsonwebtoken.security.SecurityException) {
+            return "signature";
+        }
+        if (e instanceof MalformedJwtException) {
+            return "malformed";
+        }
+        if (e instanceof UnsupportedJwtException) {
+            return "unsupported";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "empty";
+        }
+        return "invalid";
     }
 
     public String extractSubject(String token) {
         return parse(token).getBody().getSubject();
     }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible.", e);
+        }
+    }
+
+    /**
+     * Política de expiración que retira cada token de la caché en el instante de su claim `exp`.
+     */
+    private static final class UntilTokenExpires implements Expiry<ByteBuffer, Jws<Claims>> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Jws<Claims> jws, long currentTime) {
+            long remainingMs = jws.getBody().getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Jws<Claims> jws, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Jws<Claims> jws, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
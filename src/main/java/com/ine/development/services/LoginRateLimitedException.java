@@ -0,0 +1,21 @@
+package com.ine.development.services;
+
+/**
+ * Se lanza cuando una IP o un login superan el límite de intentos de inicio de sesión.
+ */
+public class LoginRateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginRateLimitedException(long retryAfterSeconds) {
+        super("Demasiados intentos de inicio de sesión. Intente de nuevo más tarde.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return los segundos que el cliente debe esperar antes de reintentar.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ine.development.services;
+
+import com.ine.development.common.TokenBucketLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita los intentos de inicio de sesión por IP de origen y por login, con cubetas de tokens
+ * en memoria. El límite por IP se aplica en `LoginRateLimitFilter` antes de leer el cuerpo, y el
+ * límite por login en `AuthController` antes de consultar la base de datos o verificar el hash.
+ * Los rechazos se publican como `security.login.rate-limited{key}`.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byLogin;
+    private final Counter ipRejected;
+    private final Counter loginRejected;
+
+    public LoginRateLimiter(
+            @Value("${security.login.rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.login.rate-limit.ip.capacity:20}") long ipCapacity,
+            @Value("${security.login.rate-limit.ip.per-minute:60}") long ipPerMinute,
+            @Value("${security.login.rate-limit.login.capacity:5}") long loginCapacity,
+            @Value("${security.login.rate-limit.login.per-minute:5}") long loginPerMinute,
+            @Value("${security.login.rate-limit.max-keys:100000}") long maxKeys,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.byIp = new TokenBucketLimiter(ipCapacity, perMinute(ipPerMinute), maxKeys);
+        this.byLogin = new TokenBucketLimiter(loginCapacity, perMinute(loginPerMinute), maxKeys);
+        this.ipRejected = rejectedCounter("ip", meterRegistry);
+        this.loginRejected = rejectedCounter("login", meterRegistry);
+        Gauge.builder("security.login.rate-limit.keys", byIp, TokenBucketLimiter::estimatedSize)
+                .description("Claves con cubeta de tokens en memoria")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("security.login.rate-limit.keys", byLogin, TokenBucketLimiter::estimatedSize)
+                .description("Claves con cubeta de tokens en memoria")
+                .tag("key", "login")
+                .register(meterRegistry);
+    }
+
+    private static Duration perMinute(long permits) {
+        return Duration.ofMinutes(1).dividedBy(Math.max(permits, 1));
+    }
+
+    private static Counter rejectedCounter(String key, MeterRegistry registry) {
+        return Counter.builder("security.login.rate-limited")
+                .description("Intentos de inicio de sesión rechazados por límite de tasa")
+                .tag("key", key)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Consume un intento de la IP de origen.
+     *
+     * @param ip la dirección remota de la petición.
+     * @throws LoginRateLimitedException si la IP superó su límite.
+     */
+    public void checkIp(String ip) {
+        check(byIp, ip, ipRejected);
+    }
+
+    /**
+     * Consume un intento del login, normalizado como en `AuthService`.
+     *
+     * @param login el nombre de usuario o correo recibido.
+     * @throws LoginRateLimitedException si el login superó su límite.
+     */
+    public void checkLogin(String login) {
+        check(byLogin, UnknownLoginCache.normalize(login), loginRejected);
+    }
+
+    private void check(TokenBucketLimiter limiter, String key, Counter rejected) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new LoginRateLimitedException(TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.ine.development.services;
+
+import com.ine.development.config.PasswordHashingCalibrator;
+import com.ine.development.models.User;
+import com.ine.development.models.dto.HashParameterCount;
+import com.ine.development.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Migra de forma transparente los hashes de contraseña obsoletos (`{bcrypt}` o Argon2 por debajo
+ * de los mínimos configurados) después de un inicio de sesión exitoso. La nueva codificación y la
+ * actualización de la columna `password` se hacen en segundo plano para no retrasar la respuesta,
+ * y los inicios de sesión repetidos del mismo usuario se agrupan en una sola migración.
+ */
+@Service
+public class PasswordRehashService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    static final String ARGON2_PREFIX = "{argon2id}$argon2id$";
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final TaskExecutor rehashExecutor;
+    private final PasswordHashingCalibrator hashingCalibrator;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong outdatedHashes = new AtomicLong(-1);
+    private final Counter migrated;
+    private final Counter skipped;
+    private final Counter failed;
+
+    public PasswordRehashService(PasswordEncoder passwordEncoder,
+                                 UserRepository userRepository,
+                                 @Qualifier("rehashExecutor") TaskExecutor rehashExecutor,
+                                 PasswordHashingCalibrator hashingCalibrator,
+                                 MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.rehashExecutor = rehashExecutor;
+        this.hashingCalibrator = hashingCalibrator;
+        Gauge.builder("security.password.rehash.pending", inFlight, Set::size)
+                .description("Migraciones de hash en cola o en curso")
+                .register(meterRegistry);
+        Gauge.builder("security.password.rehash.outdated", outdatedHashes, AtomicLong::get)
+                .description("Hashes en base de datos por debajo de los mínimos de Argon2")
+                .register(meterRegistry);
+        this.migrated = meterRegistry.counter("security.password.rehash", "result", "migrated");
+        this.skipped = meterRegistry.counter("security.password.rehash", "result", "skipped");
+        this.failed = meterRegistry.counter("security.password.rehash", "result", "failed");
+    }
+
+    /**
+     * Programa la migración del hash del usuario si no alcanza los mínimos de Argon2 configurados.
+     *
+     * @param user        el usuario recién autenticado.
+     * @param rawPassword la contraseña en claro ya verificada.
+     */
+    public void rehashIfNeeded(User user, String rawPassword) {
+        String oldHash = user.getPassword();
+        if (!hashingCalibrator.isBelowFloor(oldHash)) {
+            return;
+        }
+        Long userId = user.getId();
+        if (!inFlight.add(userId)) {
+            return;
+        }
+        try {
+            rehashExecutor.execute(() -> rehash(userId, rawPassword, oldHash));
+        } catch (TaskRejectedException e) {
+            inFlight.remove(userId);
+            skipped.increment();
+        }
+    }
+
+    private void rehash(Long userId, String rawPassword, String oldHash) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordHash(userId, oldHash, newHash) == 1) {
+                migrated.increment();
+            } else {
+                skipped.increment();
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("No se pudo migrar el hash del usuario {}: {}", userId, e.getMessage());
+        } finally {
+            inFlight.remove(userId);
+        }
+    }
+
+    /**
+     * Recalcula periódicamente cuántos hashes no alcanzan los mínimos de Argon2.
+     */
+    @Scheduled(fixedDelayString = "${security.password.rehash.count-refresh-ms:600000}", initialDelay = 60000)
+    public void refreshOutdatedCount() {
+        long outdated = userRepository.countByPasswordNotLike(ARGON2_PREFIX + "%");
+        for (HashParameterCount group : userRepository.countArgon2HashesByParameters()) {
+            if (hashingCalibrator.isBelowFloor(group.parameters())) {
+                outdated += group.count();
+            }
+        }
+        outdatedHashes.set(outdated);
+    }
+}
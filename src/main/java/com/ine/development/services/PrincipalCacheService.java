@@ -0,0 +1,121 @@
+package com.ine.development.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ine.development.config.ReadReplicaRoutingDataSource;
+import com.ine.development.models.dto.UserPrincipal;
+import com.ine.development.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caché en memoria de principales autenticados, indexada por id de usuario.
+ * Evita consultar la base de datos en cada petición autenticada por el filtro JWT.
+ * Las entradas expiran por TTL y la caché está acotada en tamaño; las métricas de
+ * aciertos, fallos y desalojos se publican como `cache.*{cache=principals}`.
+ * Las invalidaciones se propagan a las demás instancias con {@link CacheInvalidationBus}.
+ */
+@Service
+public class PrincipalCacheService {
+
+    public static final String CACHE = "principals";
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<Long, UserPrincipal> cache;
+
+    public PrincipalCacheService(
+            UserRepository userRepository,
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE);
+        invalidationBus.register(CACHE, new CacheInvalidationBus.Evictor() {
+            @Override
+            public void evict(Collection<String> keys) {
+                cache.invalidateAll(keys.stream().map(Long::valueOf).toList());
+            }
+
+            @Override
+            public void evictAll() {
+                cache.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Obtiene el principal del usuario, cargándolo desde la base de datos solo si no está en caché.
+     * La carga se hace siempre en el primario y sin leer la caché de segundo nivel, que una lectura
+     * en una réplica pudo llenar con el estado anterior de un usuario recién deshabilitado.
+     *
+     * @param userId el id del usuario.
+     * @return el principal del usuario o vacío si no existe.
+     */
+    public Optional<UserPrincipal> get(Long userId) {
+        return Optional.ofNullable(cache.get(userId, id -> ReadReplicaRoutingDataSource.onPrimary(() ->
+                userRepository.findUncachedById(id)
+                        .map(UserPrincipal::from)
+                        .orElse(null))));
+    }
+
+    /**
+     * Invalida el principal de un usuario. Si hay una transacción activa la entrada se invalida
+     * también al confirmar, para que una lectura concurrente no vuelva a cachear el estado anterior.
+     *
+     * @param userId el id del usuario a invalidar.
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        invalidationBus.publish(CACHE, List.of(userId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Invalida los principales de varios usuarios, ahora y al terminar la transacción activa.
+     *
+     * @param userIds los ids de los usuarios a invalidar.
+     */
+    public void invalidateAll(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        cache.invalidateAll(ids);
+        invalidationBus.publish(CACHE, ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,152 @@
+package com.ine.development.services;
+
+import com.ine.development.common.Chunks;
+import com.ine.development.common.interfaces.BaseRepository;
+import com.ine.development.models.User;
+import com.ine.development.models.dto.TokenEpoch;
+import com.ine.development.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro en memoria de las épocas mínimas válidas de tokens por usuario.
+ * Permite revocar tokens en el modo de autenticación sin base de datos: cada vez que un usuario
+ * se deshabilita o cambia su contraseña se incrementa su época, y los tokens emitidos con una
+ * época anterior dejan de ser aceptados. Solo se guardan los usuarios con época mayor a cero.
+ */
+@Service
+public class TokenRevocationService {
+
+    /** Margen aplicado a la marca de agua para tolerar commits tardíos y desfases de reloj. */
+    private static final long REFRESH_OVERLAP_SECONDS = 30;
+
+    private final UserRepository userRepository;
+    private final boolean stateless;
+    private final Map<Long, Integer> minEpochs = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark;
+
+    public TokenRevocationService(
+            UserRepository userRepository,
+            @Value("${security.jwt.stateless:false}") boolean stateless
+    ) {
+        this.userRepository = userRepository;
+        this.stateless = stateless;
+    }
+
+    /**
+     * Indica si un token emitido con la época dada ya fue revocado.
+     *
+     * @param userId     el id del usuario.
+     * @param tokenEpoch la época contenida en el token.
+     * @return true si el token está revocado.
+     */
+    public boolean isRevoked(Long userId, int tokenEpoch) {
+        return tokenEpoch < minEpochs.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Incrementa la época de tokens del usuario, revocando todos sus tokens emitidos.
+     * El cambio se escribe junto con la actualización de la entidad y se aplica al registro
+     * local al confirmar la transacción.
+     *
+     * @param user la entidad gestionada del usuario.
+     */
+    public void revokeTokens(User user) {
+        int epoch = user.getTokenEpoch() + 1;
+        user.setTokenEpoch(epoch);
+        register(user.getId(), epoch);
+    }
+
+    /**
+     * Registra la revocación de un usuario cuya época ya se incrementó con una sentencia
+     * UPDATE directa. Solo en modo sin estado se lee la nueva época; en el modo con base de datos
+     * el filtro JWT valida el estado del usuario en cada petición.
+     *
+     * @param userId el id del usuario.
+     */
+    public void tokensRevoked(Long userId) {
+        if (!stateless) {
+            return;
+        }
+        userRepository.findTokenEpochById(userId).ifPresent(epoch -> register(userId, epoch));
+    }
+
+    /**
+     * Registra la revocación de varios usuarios actualizados con un cambio de estado masivo,
+     * leyendo sus nuevas épocas por bloques en modo sin estado.
+     *
+     * @param userIds los ids de los usuarios.
+     */
+    public void tokensRevoked(Collection<Long> userIds) {
+        if (!stateless) {
+            return;
+        }
+        for (List<Long> chunk : Chunks.of(userIds, BaseRepository.BULK_CHUNK_SIZE)) {
+            userRepository.findTokenEpochsByIdIn(chunk).forEach(e -> register(e.userId(), e.epoch()));
+        }
+    }
+
+    /**
+     * Aplica la época al registro local al confirmar la transacción en curso, o de inmediato si no hay una.
+     */
+    private void register(Long userId, int epoch) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    minEpochs.merge(userId, epoch, Math::max);
+                }
+            });
+        } else {
+            minEpochs.merge(userId, epoch, Math::max);
+        }
+    }
+
+    /**
+     * Carga todas las épocas desde la base de datos al iniciar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!stateless) {
+            return;
+        }
+        apply(userRepository.findTokenEpochs());
+    }
+
+    /**
+     * Refresca de forma incremental las épocas modificadas desde la última lectura,
+     * incluyendo las revocaciones hechas por otras instancias.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.stateless.refresh-ms:30000}")
+    public void refresh() {
+        if (!stateless) {
+            return;
+        }
+        LocalDateTime since = watermark;
+        apply(since == null
+                ? userRepository.findTokenEpochs()
+                : userRepository.findTokenEpochsUpdatedAfter(since.minusSeconds(REFRESH_OVERLAP_SECONDS)));
+    }
+
+    private void apply(List<TokenEpoch> epochs) {
+        LocalDateTime max = watermark;
+        for (TokenEpoch e : epochs) {
+            minEpochs.merge(e.userId(), e.epoch(), Math::max);
+            if (e.updatedAt() != null && (max == null || e.updatedAt().isAfter(max))) {
+                max = e.updatedAt();
+            }
+        }
+        watermark = (max == null) ? LocalDateTime.now() : max;
+    }
+}
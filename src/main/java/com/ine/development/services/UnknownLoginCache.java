@@ -0,0 +1,108 @@
+package com.ine.development.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Caché acotada (LRU con TTL) de logins que no corresponden a ningún usuario.
+ * Permite rechazar los intentos repetidos con logins inexistentes sin consultar la base de datos.
+ * Las claves son los logins normalizados; las métricas se publican como `cache.*{cache=unknownLogins}`.
+ * Las invalidaciones se propagan a las demás instancias con {@link CacheInvalidationBus}.
+ */
+@Service
+public class UnknownLoginCache {
+
+    public static final String CACHE = "unknownLogins";
+
+    private final Cache<String, Boolean> cache;
+    private final CacheInvalidationBus invalidationBus;
+
+    public UnknownLoginCache(
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${security.login.unknown-cache.max-size:100000}") long maxSize,
+            @Value("${security.login.unknown-cache.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.register(CACHE, new CacheInvalidationBus.Evictor() {
+            @Override
+            public void evict(Collection<String> keys) {
+                cache.invalidateAll(keys);
+            }
+
+            @Override
+            public void evictAll() {
+                cache.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Normaliza un login: sin espacios al inicio o al final y, si es un correo, en minúsculas.
+     * Los nombres conservan sus mayúsculas porque la comparación depende de la intercalación de la base de datos.
+     *
+     * @param login el login recibido.
+     * @return el login normalizado.
+     */
+    public static String normalize(String login) {
+        String trimmed = login.trim();
+        return isEmail(trimmed) ? trimmed.toLowerCase(Locale.ROOT) : trimmed;
+    }
+
+    public static boolean isEmail(String login) {
+        return login.indexOf('@') >= 0;
+    }
+
+    public boolean isUnknown(String key) {
+        return cache.getIfPresent(key) != null;
+    }
+
+    public void markUnknown(String key) {
+        cache.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Olvida los logins indicados porque un usuario pasó a usarlos. Si hay una transacción activa
+     * se olvidan también al confirmar, para que un intento concurrente no los vuelva a marcar.
+     *
+     * @param logins los nombres o correos que ahora existen; se ignoran los nulos.
+     */
+    public void invalidate(String... logins) {
+        List<String> keys = Arrays.stream(logins)
+                .filter(Objects::nonNull)
+                .map(UnknownLoginCache::normalize)
+                .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(keys);
+        invalidationBus.publish(CACHE, keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+}
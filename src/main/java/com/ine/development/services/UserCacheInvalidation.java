@@ -0,0 +1,48 @@
+package com.ine.development.services;
+
+import com.ine.development.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+
+/**
+ * Propaga los cambios de usuarios a la caché de segundo nivel de Hibernate de las demás instancias.
+ * Cada cambio publicado por `UserService` o `UserImportService` agrega sus ids al registro de invalidaciones antes de
+ * confirmar; al aplicarlos, las demás instancias desalojan esas entidades y las consultas cacheadas,
+ * porque Hibernate solo invalida las consultas ante las escrituras de su propia instancia.
+ */
+@Component
+public class UserCacheInvalidation {
+
+    public static final String CACHE = "users";
+
+    private final CacheInvalidationBus invalidationBus;
+
+    public UserCacheInvalidation(CacheInvalidationBus invalidationBus, EntityManagerFactory entityManagerFactory) {
+        this.invalidationBus = invalidationBus;
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        invalidationBus.register(CACHE, new CacheInvalidationBus.Evictor() {
+            @Override
+            public void evict(Collection<String> keys) {
+                keys.forEach(id -> cache.evictEntityData(User.class, Long.valueOf(id)));
+                cache.evictQueryRegions();
+            }
+
+            @Override
+            public void evictAll() {
+                cache.evictEntityData(User.class);
+                cache.evictQueryRegions();
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidationBus.publish(CACHE, event.ids());
+    }
+}
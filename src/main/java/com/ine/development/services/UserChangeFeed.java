@@ -0,0 +1,379 @@
+package com.ine.development.services;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ine.development.models.User;
+import com.ine.development.models.dto.UserPrincipal;
+import com.ine.development.models.dto.UserView;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Difunde los cambios de usuarios como Server-Sent Events.
+ * Los eventos de `UserService` se reciben al confirmar la transacción, se serializan una sola vez y
+ * se guardan en un búfer circular acotado (`history-size`). Cada suscriptor tiene su propia cola
+ * acotada (`buffer-size`) que se vacía en un hilo virtual; quien confirma la transacción solo
+ * encola, sin esperar a ningún cliente. Un suscriptor cuya cola se llena se desconecta y debe
+ * reconectarse con `Last-Event-ID`. Si el id ya no está en el búfer, o es de otra instancia o de
+ * un arranque anterior, se envía un evento `reset` para que el cliente recargue la lista completa.
+ *
+ * Con varias instancias, cada cambio también se agrega al registro de `CacheInvalidationBus` como
+ * `<tipo>:<id>` en la caché {@value #RELAY}, y las demás instancias lo difunden a sus suscriptores
+ * al leer el registro, en el orden en que se escribió y solo con los ids. Si el cambio supera
+ * `max-keys` ids, el registro guarda una invalidación completa y se difunde un `reset`.
+ *
+ * El token solo se valida al abrir el flujo, por lo que cada suscriptor guarda su usuario y los
+ * datos de su token: se desconecta en cuanto se deshabilita su usuario y, en cada latido, si su
+ * token venció o fue revocado o su usuario ya no está activo (también por cambios de otra instancia).
+ */
+@Service
+public class UserChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeFeed.class);
+
+    static final String RESET = "reset";
+
+    /** Caché del registro de invalidaciones por la que se reenvían los cambios a las demás instancias. */
+    static final String RELAY = "userChanges";
+
+    private static final Entry HEARTBEAT = new Entry(-1, null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+    private final PrincipalCacheService principalCache;
+    private final TokenRevocationService revocationService;
+    private final CacheInvalidationBus invalidationBus;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final Counter evicted;
+
+    /** Prefijo de los ids de evento, distinto en cada arranque de cada instancia. */
+    private final String stream = Long.toString(System.currentTimeMillis(), 36);
+    private final Entry[] history;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long sequence;
+
+    private record Entry(long sequence, String id, String name, String data) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private record Change(String type, List<Long> ids, @Nullable UserView user) {
+    }
+
+    public UserChangeFeed(
+            ObjectMapper objectMapper,
+            @Qualifier("userEventsExecutor") TaskExecutor executor,
+            PrincipalCacheService principalCache,
+            TokenRevocationService revocationService,
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${app.users.events.history-size:1000}") int historySize,
+            @Value("${app.users.events.buffer-size:256}") int bufferSize,
+            @Value("${app.users.events.timeout-ms:1800000}") long timeoutMs
+    ) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.principalCache = principalCache;
+        this.revocationService = revocationService;
+        this.invalidationBus = invalidationBus;
+        this.history = new Entry[historySize];
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.evicted = Counter.builder("app.users.events.evicted")
+                .description("Suscriptores desconectados por no consumir los eventos a tiempo")
+                .register(meterRegistry);
+        Gauge.builder("app.users.events.subscribers", subscribers, Set::size)
+                .description("Suscriptores conectados al flujo de cambios de usuarios")
+                .register(meterRegistry);
+        invalidationBus.register(RELAY, new CacheInvalidationBus.Evictor() {
+            @Override
+            public void evict(Collection<String> keys) {
+                relayed(keys);
+            }
+
+            @Override
+            public void evictAll() {
+                broadcast(RESET, "{}");
+            }
+        });
+    }
+
+    /**
+     * Registra un suscriptor y le reenvía los eventos posteriores a `lastEventId`.
+     *
+     * @param lastEventId el valor del encabezado `Last-Event-ID`, o null en la primera conexión.
+     * @param claims      los claims del token que autenticó la petición.
+     * @return el emisor de la respuesta.
+     */
+    public SseEmitter subscribe(@Nullable String lastEventId, Claims claims) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, Long.valueOf(claims.getSubject()),
+                JwtService.epochOf(claims), claims.getExpiration());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        subscriber.signal();
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        publish(event.type(), event.ids(), event.user());
+    }
+
+    /**
+     * Agrega el cambio al registro de invalidaciones en la transacción que lo hace, para que las
+     * demás instancias lo difundan solo si se confirma.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void relay(UserChangedEvent event) {
+        invalidationBus.publish(RELAY, event.ids().stream().map(id -> event.type().name() + ":" + id).toList());
+    }
+
+    /**
+     * Difunde los cambios leídos del registro de otra instancia, agrupando los ids consecutivos del mismo tipo.
+     */
+    private void relayed(Collection<String> keys) {
+        UserChangedEvent.Type type = null;
+        List<Long> ids = new ArrayList<>();
+        for (String key : keys) {
+            int colon = key.indexOf(':');
+            UserChangedEvent.Type keyType = UserChangedEvent.Type.valueOf(key.substring(0, colon));
+            if (keyType != type && !ids.isEmpty()) {
+                publish(type, ids, null);
+                ids = new ArrayList<>();
+            }
+            type = keyType;
+            ids.add(Long.valueOf(key.substring(colon + 1)));
+        }
+        if (type != null) {
+            publish(type, ids, null);
+        }
+    }
+
+    private void publish(UserChangedEvent.Type type, List<Long> ids, @Nullable User user) {
+        String name = type.name().toLowerCase(Locale.ROOT);
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(new Change(name, ids, user == null ? null : UserView.from(user)));
+        } catch (JsonProcessingException e) {
+            log.warn("No se pudo serializar el cambio de usuarios {}: {}", ids, e.getMessage());
+            return;
+        }
+        if (type == UserChangedEvent.Type.DISABLED) {
+            Set<Long> disabled = new HashSet<>(ids);
+            for (Subscriber subscriber : subscribers) {
+                if (disabled.contains(subscriber.userId)) {
+                    disconnect(subscriber);
+                }
+            }
+        }
+        broadcast(name, data);
+    }
+
+    private void broadcast(String name, String data) {
+        lock.lock();
+        try {
+            long seq = ++sequence;
+            Entry entry = new Entry(seq, stream + "-" + seq, name, data);
+            history[(int) (seq % history.length)] = entry;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Desconecta a los suscriptores que ya no están autorizados y envía un comentario a los demás
+     * para detectar las conexiones cerradas por el cliente y evitar que los proxies corten una
+     * conexión sin tráfico.
+     */
+    @Scheduled(fixedDelayString = "${app.users.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (isAuthorized(subscriber)) {
+                subscriber.offer(HEARTBEAT);
+            } else {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Aplica al suscriptor las mismas reglas que `JwtAuthFilter` a una petición: el token no venció
+     * ni fue revocado y el usuario sigue activo.
+     */
+    private boolean isAuthorized(Subscriber subscriber) {
+        if (subscriber.expiresAt != null && subscriber.expiresAt.getTime() <= System.currentTimeMillis()) {
+            return false;
+        }
+        if (revocationService.isRevoked(subscriber.userId, subscriber.tokenEpoch)) {
+            return false;
+        }
+        return principalCache.get(subscriber.userId).map(UserPrincipal::isActive).orElse(false);
+    }
+
+    /**
+     * Encola los eventos del búfer posteriores a `lastEventId`, o un `reset` si no se pueden
+     * reconstruir todos. Debe llamarse con el lock tomado.
+     */
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long last = parseSequence(lastEventId);
+        long oldest = Math.max(1, sequence - history.length + 1);
+        if (last < oldest - 1 || last > sequence || sequence - last > bufferSize) {
+            subscriber.offer(new Entry(0, stream + "-" + sequence, RESET, "{}"));
+            return;
+        }
+        for (long seq = last + 1; seq <= sequence; seq++) {
+            subscriber.offer(history[(int) (seq % history.length)]);
+        }
+    }
+
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.indexOf('-');
+        if (dash < 0 || !stream.equals(lastEventId.substring(0, dash))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Desconecta a un suscriptor lento. El emisor se cierra en el ejecutor de envíos, porque
+     * `complete()` espera a que termine un envío en curso.
+     */
+    private void evict(Subscriber subscriber) {
+        if (disconnect(subscriber)) {
+            evicted.increment();
+        }
+    }
+
+    /**
+     * Quita al suscriptor y cierra su emisor en el ejecutor de envíos.
+     *
+     * @return false si el suscriptor ya estaba desconectado.
+     */
+    private boolean disconnect(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        subscriber.queue.clear();
+        try {
+            executor.execute(subscriber.emitter::complete);
+        } catch (TaskRejectedException e) {
+            // la aplicación se está deteniendo y el contenedor cierra la conexión
+        }
+        return true;
+    }
+
+    /**
+     * Cola acotada de un suscriptor, el estado de su envío en curso y los datos del token con que se suscribió.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final int tokenEpoch;
+        private final Date expiresAt;
+        private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Long userId, int tokenEpoch, @Nullable Date expiresAt) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.tokenEpoch = tokenEpoch;
+            this.expiresAt = expiresAt;
+        }
+
+        void offer(Entry entry) {
+            if (!queue.offer(entry)) {
+                evict(this);
+                return;
+            }
+            signal();
+        }
+
+        void signal() {
+            if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                draining.set(false);
+                subscribers.remove(this);
+            }
+        }
+
+        private void drain() {
+            try {
+                Entry entry;
+                while ((entry = queue.poll()) != null) {
+                    send(entry);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // el cliente cerró la conexión o el emisor ya terminó
+                subscribers.remove(this);
+                queue.clear();
+            } finally {
+                draining.set(false);
+            }
+            signal();
+        }
+
+        private void send(Entry entry) throws IOException {
+            if (entry == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment(""));
+            } else {
+                emitter.send(SseEmitter.event()
+                        .id(entry.id())
+                        .name(entry.name())
+                        .data(entry.data()));
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ine.development.services;
+
+import com.ine.development.models.User;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Evento que `UserService` publica al crear, modificar o cambiar el estado de usuarios, y
+ * `UserImportService` por cada bloque importado.
+ * Se entrega a los listeners transaccionales al confirmar la transacción, cuando la entidad ya
+ * tiene la versión y la fecha de actualización asignadas al escribirla.
+ *
+ * @param type el tipo de cambio.
+ * @param ids  los ids de los usuarios; un cambio de estado masivo o un bloque importado publica un solo evento.
+ * @param user la entidad creada o modificada, o null si el cambio se hizo con un `UPDATE` directo o
+ *             es un bloque importado.
+ */
+public record UserChangedEvent(Type type, List<Long> ids, @Nullable User user) {
+
+    public enum Type {
+        CREATED, UPDATED, DISABLED, ENABLED
+    }
+
+    public static UserChangedEvent of(Type type, User user) {
+        return new UserChangedEvent(type, List.of(user.getId()), user);
+    }
+}
@@ -0,0 +1,350 @@
+package com.ine.development.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ine.development.common.interfaces.OnCreate;
+import com.ine.development.models.User;
+import com.ine.development.models.dto.ImportReport;
+import com.ine.development.models.dto.ImportRowResult;
+import com.ine.development.models.dto.UserDto;
+import com.ine.development.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servicio para la importación masiva de usuarios desde CSV o NDJSON.
+ * El archivo se procesa en bloques: la unicidad se valida contra el propio archivo y contra la
+ * base de datos con una consulta por bloque, las contraseñas se codifican en paralelo en un
+ * ejecutor acotado y las inserciones se envían en lotes JDBC, una transacción por bloque.
+ * Cada bloque confirmado publica un evento `CREATED` con los ids insertados, que difunde el flujo
+ * de cambios e invalida las cachés de las demás instancias.
+ * Como los bloques anteriores ya están confirmados, al alcanzar el máximo de filas o ante un error
+ * de lectura o de un bloque la importación se detiene y devuelve el reporte de lo procesado.
+ */
+@Service
+public class UserImportService {
+
+    public static final String TEXT_CSV = "text/csv";
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "password", "phone");
+    static final String CHUNK_FAILED = "No se pudo procesar el bloque; la importación se detuvo.";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final UserRepository userRepository;
+    private final AuthService authService;
+    private final UnknownLoginCache unknownLogins;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor importExecutor;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int maxRows;
+    private final int chunkSize;
+
+    public UserImportService(UserRepository userRepository,
+                             AuthService authService,
+                             UnknownLoginCache unknownLogins,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Qualifier("importExecutor") TaskExecutor importExecutor,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher events,
+                             @Value("${app.users.import.max-rows:50000}") int maxRows,
+                             @Value("${app.users.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.authService = authService;
+        this.unknownLogins = unknownLogins;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.importExecutor = importExecutor;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.maxRows = maxRows;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Fila leída del archivo, con el DTO o el error de lectura.
+     */
+    private record PendingRow(int row, UserDto dto, String error) {}
+
+    /**
+     * Importa los usuarios del flujo recibido. Si el archivo supera `max-rows` filas, o falla la
+     * lectura o un bloque, se deja de leer y el reporte se marca como truncado.
+     *
+     * @param in          el cuerpo de la petición.
+     * @param contentType `text/csv` (con encabezado name,email,password,phone) o `application/x-ndjson`.
+     * @return el reporte con el resultado de cada fila procesada.
+     * @throws IOException si no se puede leer el encabezado CSV.
+     */
+    public ImportReport importUsers(InputStream in, MediaType contentType) throws IOException {
+        boolean csv = contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV));
+        List<ImportRowResult> results = new ArrayList<>();
+        Set<String> seenNames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        String stopped = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> header = csv ? readCsvHeader(reader) : null;
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            int rowNumber = 0;
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (rowNumber == maxRows) {
+                        stopped = "El archivo supera el máximo de " + maxRows + " filas; no se leyeron las filas siguientes.";
+                        break;
+                    }
+                    chunk.add(csv ? parseCsvRow(++rowNumber, line, header) : parseJsonRow(++rowNumber, line));
+                    if (chunk.size() == chunkSize) {
+                        boolean processed = process(chunk, seenNames, seenEmails, results);
+                        chunk.clear();
+                        if (!processed) {
+                            return ImportReport.truncated(results, CHUNK_FAILED);
+                        }
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Error de lectura en la importación después de la fila {}: {}", rowNumber, e.getMessage());
+                stopped = "Error al leer el archivo después de la fila " + rowNumber + "; no se leyeron las filas siguientes.";
+            }
+            if (!chunk.isEmpty() && !process(chunk, seenNames, seenEmails, results)) {
+                stopped = CHUNK_FAILED;
+            }
+        }
+        return ImportReport.truncated(results, stopped);
+    }
+
+    /**
+     * Procesa un bloque y agrega sus resultados. Si el bloque falla por algo distinto de un
+     * conflicto de unicidad, sus filas se rechazan y se indica que la importación debe detenerse.
+     *
+     * @return false si el bloque no se pudo procesar.
+     */
+    private boolean process(List<PendingRow> chunk, Set<String> seenNames, Set<String> seenEmails,
+                            List<ImportRowResult> results) {
+        try {
+            results.addAll(processChunk(chunk, seenNames, seenEmails));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Falló el bloque de importación de las filas {}-{}: {}",
+                    chunk.get(0).row(), chunk.get(chunk.size() - 1).row(), e.getMessage());
+            chunk.forEach(r -> results.add(ImportRowResult.rejected(r.row(), CHUNK_FAILED)));
+            return false;
+        }
+    }
+
+    /**
+     * Valida, codifica e inserta un bloque de filas.
+     */
+    private List<ImportRowResult> processChunk(List<PendingRow> chunk, Set<String> seenNames, Set<String> seenEmails) {
+        ImportRowResult[] results = new ImportRowResult[chunk.size()];
+        List<Integer> accepted = new ArrayList<>();
+        List<UserDto> normalized = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingRow r = chunk.get(i);
+            if (r.error() != null) {
+                results[i] = ImportRowResult.rejected(r.row(), r.error());
+                continue;
+            }
+            String violations = validator.validate(r.dto(), OnCreate.class).stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!violations.isEmpty()) {
+                results[i] = ImportRowResult.rejected(r.row(), violations);
+                continue;
+            }
+            UserDto dto = new UserDto(
+                    r.dto().name().trim(),
+                    r.dto().email().trim().toLowerCase(),
+                    r.dto().password(),
+                    r.dto().phone().trim());
+            if (!seenNames.add(dto.name().toLowerCase())) {
+                results[i] = ImportRowResult.rejected(r.row(), "El usuario está repetido en el archivo.");
+                continue;
+            }
+            if (!seenEmails.add(dto.email())) {
+                results[i] = ImportRowResult.rejected(r.row(), "El correo está repetido en el archivo.");
+                continue;
+            }
+            normalized.set(i, dto);
+            accepted.add(i);
+        }
+
+        if (!accepted.isEmpty()) {
+            rejectExisting(chunk, normalized, accepted, results);
+        }
+        if (!accepted.isEmpty()) {
+            insert(chunk, normalized, accepted, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Rechaza las filas cuyo nombre o correo ya existen, con una consulta por columna para todo el bloque.
+     */
+    private void rejectExisting(List<PendingRow> chunk, List<UserDto> normalized,
+                                List<Integer> accepted, ImportRowResult[] results) {
+        Set<String> existingNames = userRepository.findExistingNames(
+                accepted.stream().map(i -> normalized.get(i).name()).toList()).stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        Set<String> existingEmails = userRepository.findExistingEmails(
+                accepted.stream().map(i -> normalized.get(i).email()).toList()).stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+
+        accepted.removeIf(i -> {
+            UserDto dto = normalized.get(i);
+            if (existingNames.contains(dto.name().toLowerCase())) {
+                results[i] = ImportRowResult.rejected(chunk.get(i).row(), UserService.NAME_TAKEN);
+                return true;
+            }
+            if (existingEmails.contains(dto.email())) {
+                results[i] = ImportRowResult.rejected(chunk.get(i).row(), UserService.EMAIL_TAKEN);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Codifica en paralelo las contraseñas del bloque y lo inserta en una sola transacción, que
+     * publica un único evento con los ids insertados.
+     */
+    private void insert(List<PendingRow> chunk, List<UserDto> normalized,
+                        List<Integer> accepted, ImportRowResult[] results) {
+        List<CompletableFuture<String>> hashes = accepted.stream()
+                .map(i -> CompletableFuture.supplyAsync(
+                        () -> authService.encodePassword(normalized.get(i).password()), importExecutor))
+                .toList();
+
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int k = 0; k < accepted.size(); k++) {
+            UserDto dto = normalized.get(accepted.get(k));
+            User user = new User();
+            user.setName(dto.name());
+            user.setEmail(dto.email());
+            user.setPhone(dto.phone());
+            user.setPassword(hashes.get(k).join());
+            users.add(user);
+        }
+
+        try {
+            tx.executeWithoutResult(status -> {
+                unknownLogins.invalidate(users.stream()
+                        .flatMap(user -> Stream.of(user.getName(), user.getEmail()))
+                        .toArray(String[]::new));
+                userRepository.saveAllAndFlush(users);
+                em.clear();
+                events.publishEvent(new UserChangedEvent(UserChangedEvent.Type.CREATED,
+                        users.stream().map(User::getId).toList(), null));
+            });
+            for (int k = 0; k < accepted.size(); k++) {
+                int i = accepted.get(k);
+                results[i] = ImportRowResult.created(chunk.get(i).row(), users.get(k).getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            for (int i : accepted) {
+                results[i] = ImportRowResult.rejected(chunk.get(i).row(),
+                        "Conflicto al insertar el bloque; un usuario o correo fue registrado durante la importación.");
+            }
+        }
+    }
+
+    private List<String> readCsvHeader(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return CSV_COLUMNS;
+        }
+        List<String> header = splitCsv(line).stream().map(c -> c.trim().toLowerCase()).toList();
+        if (!header.containsAll(CSV_COLUMNS)) {
+            throw new IllegalArgumentException("El encabezado CSV debe contener las columnas " + String.join(",", CSV_COLUMNS) + ".");
+        }
+        return header;
+    }
+
+    private PendingRow parseCsvRow(int row, String line, List<String> header) {
+        List<String> values = splitCsv(line);
+        if (values.size() != header.size()) {
+            return new PendingRow(row, null, "La fila tiene " + values.size() + " columnas y se esperaban " + header.size() + ".");
+        }
+        Map<String, String> byColumn = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byColumn.put(header.get(i), values.get(i));
+        }
+        return new PendingRow(row, new UserDto(
+                byColumn.get("name"), byColumn.get("email"), byColumn.get("password"), byColumn.get("phone")), null);
+    }
+
+    private PendingRow parseJsonRow(int row, String line) {
+        try {
+            return new PendingRow(row, objectMapper.readValue(line, UserDto.class), null);
+        } catch (JsonProcessingException e) {
+            return new PendingRow(row, null, "JSON inválido o mal formado.");
+        }
+    }
+
+    /**
+     * Separa una línea CSV en columnas, respetando valores entre comillas dobles.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
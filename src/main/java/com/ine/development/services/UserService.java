@@ -1,22 +1,36 @@
 package com.ine.development.services;
 
+import com.ine.development.common.dto.BulkStatusResult;
+import com.ine.development.common.dto.ChangeSet;
+import com.ine.development.common.dto.CursorPage;
+import com.ine.development.common.dto.Watermark;
 import com.ine.development.common.interfaces.CrudOptions;
 import com.ine.development.common.interfaces.OnCreate;
 import com.ine.development.common.interfaces.OnUpdate;
+import com.ine.development.common.interfaces.UniqueConstraintMessages;
+import com.ine.development.config.ReadReplicaRoutingDataSource;
 import com.ine.development.models.User;
+import com.ine.development.models.dto.UniquenessClash;
 import com.ine.development.models.dto.UserDto;
+import com.ine.development.models.dto.UserView;
 import com.ine.development.repositories.UserRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.ine.development.common.Updaters.*;
 
@@ -26,38 +40,86 @@ import static com.ine.development.common.Updaters.*;
  */
 @Service
 @RequiredArgsConstructor
-public class UserService implements CrudOptions<User, Long, UserDto, UserDto> {
+public class UserService implements CrudOptions<User, UserView, Long, UserDto, UserDto>, UniqueConstraintMessages {
 
-    @PersistenceContext
-    private EntityManager em;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BULK_SIZE = 10_000;
+    public static final String NAME_TAKEN = "El usuario que ingresó ya existe.";
+    public static final String EMAIL_TAKEN = "El correo que ingresó ya existe.";
+
+    @Value("${app.users.uniqueness.optimistic:false}")
+    private boolean optimisticUniqueness;
+
+    @Value("${app.users.changes.safety-lag-ms:5000}")
+    private long changesSafetyLagMs;
 
     private final AuthService authService;
     private final UserRepository userRepository;
+    private final PrincipalCacheService principalCache;
+    private final TokenRevocationService revocationService;
+    private final UnknownLoginCache unknownLogins;
+    private final ApplicationEventPublisher events;
 
     @Override
     @Transactional(readOnly = true)
-    public User findById(Long id) {
-        return userRepository.findByIdAndStatus(id, 1)
+    public UserView findById(Long id) {
+        return userRepository.findByIdAndStatus(id, 1, UserView.class)
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado."));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> findAll(Integer... status) {
-        if (status == null || status.length == 0) {
-            return userRepository.findAllActive();
+    public List<UserView> findAll(Integer... status) {
+        return userRepository.findByStatusIn(normalizeStatus(status), UserView.class);
+    }
+
+    /**
+     * Entrega uno a uno los usuarios con los estados indicados. Las proyecciones no se registran
+     * en el contexto de persistencia, por lo que la memoria se mantiene constante.
+     *
+     * @param sink   consumidor que recibe cada usuario.
+     * @param status Estados a filtrar; sin estados se consideran solo los activos.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserView> sink, Integer... status) {
+        try (Stream<UserView> users = userRepository.streamByStatusInOrderByIdAsc(normalizeStatus(status), UserView.class)) {
+            users.forEach(sink);
         }
-        if (status.length == 1) {
-            Integer s = (status[0] == null) ? 1 : status[0];
-            return userRepository.findByStatus(s);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserView, Long> findPage(@Nullable Long after, int limit, Integer... status) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
         }
-        List<Integer> listStatus = Arrays.stream(status)
-                .map(s -> s == null ? 1 : s)
-                .distinct()
-                .toList();
-        return userRepository.findByStatusIn(listStatus);
+        List<UserView> rows = userRepository.findPageByStatus(normalizeStatus(status), after, limit + 1, UserView.class);
+        return CursorPage.of(rows, limit, UserView::id);
     }
 
+    /**
+     * Obtiene los usuarios creados, modificados o deshabilitados después de la marca de agua.
+     * Solo se entregan los cambios con más de `app.users.changes.safety-lag-ms` de antigüedad, para
+     * que una transacción que aún no confirma un cambio con fecha anterior no quede detrás de la
+     * marca de agua. Se lee del primario, porque el retraso de una réplica no tiene cota.
+     *
+     * @param since la marca de agua de la sincronización anterior, o null para la primera.
+     * @param limit el número máximo de usuarios (1-500).
+     * @return los usuarios modificados y la nueva marca de agua.
+     * @throws IllegalArgumentException Si el límite o la marca de agua no son válidos.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeSet<UserView> findChanges(@Nullable String since, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        }
+        Watermark<Long> watermark = since == null ? null : Watermark.parse(since, Long::valueOf);
+        LocalDateTime until = LocalDateTime.now().minusNanos(changesSafetyLagMs * 1_000_000);
+        List<UserView> rows = ReadReplicaRoutingDataSource.onPrimary(() ->
+                userRepository.findChanges(watermark, until, limit + 1, UserView.class));
+        return ChangeSet.of(rows, limit, watermark, u -> new Watermark<>(u.updatedAt(), u.id()));
+    }
 
     @Override
     @Transactional
@@ -66,9 +128,9 @@ public class UserService implements CrudOptions<User, Long, UserDto, UserDto> {
         validateEmailAndUsername(null, user.email(), user.name());
         User newUser =  new User();
         applyPatch(newUser, user);
+        unknownLogins.invalidate(newUser.getName(), newUser.getEmail());
         User saved = userRepository.save(newUser);
-        em.flush();
-        em.refresh(saved);
+        events.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.CREATED, saved));
         return saved;
     }
 
@@ -76,11 +138,34 @@ public class UserService implements CrudOptions<User, Long, UserDto, UserDto> {
     @Transactional
     @Validated(OnUpdate.class)
     public User update(Long id, @Valid UserDto req) {
-        User u = findById(id);
+        return update(id, req, null);
+    }
+
+    /**
+     * Actualiza un usuario solo si su versión coincide con la esperada (encabezado `If-Match`).
+     * Una actualización concurrente posterior a la validación la detecta la columna `@Version` al confirmar.
+     *
+     * @param id              ID del usuario.
+     * @param req             DTO con los cambios.
+     * @param expectedVersion versión esperada, o null para no validarla.
+     * @return el usuario actualizado.
+     * @throws ObjectOptimisticLockingFailureException si la versión no coincide.
+     */
+    @Transactional
+    @Validated(OnUpdate.class)
+    public User update(Long id, @Valid UserDto req, @Nullable Long expectedVersion) {
+        User u = findActive(id);
+        if (expectedVersion != null && u.getVersion() != expectedVersion) {
+            throw new ObjectOptimisticLockingFailureException(User.class, id);
+        }
         validateEmailAndUsername(id, req.email(), req.name());
         applyPatch(u, req);
-        em.flush();
-        em.refresh(u);
+        unknownLogins.invalidate(req.name(), req.email());
+        if (req.password() != null) {
+            revocationService.revokeTokens(u);
+        }
+        principalCache.invalidate(id);
+        events.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.UPDATED, u));
         return u;
     }
 
@@ -88,10 +173,69 @@ public class UserService implements CrudOptions<User, Long, UserDto, UserDto> {
     @Transactional
     @Validated(OnUpdate.class)
     public void disable(Long id) {
-        User u = findById(id);
-        u.setStatus(0);
-        em.flush();
-        em.refresh(u);
+        if (userRepository.disableActive(id, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("Usuario no encontrado.");
+        }
+        revocationService.tokensRevoked(id);
+        principalCache.invalidate(id);
+        events.publishEvent(new UserChangedEvent(UserChangedEvent.Type.DISABLED, List.of(id), null));
+    }
+
+    /**
+     * Habilita o deshabilita muchos usuarios en una transacción, con sentencias `UPDATE` por bloques
+     * que no cargan las entidades. Cada usuario modificado revoca sus tokens y sale de la caché de
+     * principales.
+     *
+     * @param ids    IDs de los usuarios.
+     * @param status Nuevo estado (0=Inactivo, 1=Activo).
+     * @return los ids modificados y los ids inexistentes; los que ya tenían el estado no se modifican.
+     * @throws IllegalArgumentException Si el estado no es válido o hay más de {@value #MAX_BULK_SIZE} ids.
+     */
+    @Override
+    @Transactional
+    public BulkStatusResult<Long> changeStatus(Collection<Long> ids, Integer status) {
+        if (status == null || (status != 0 && status != 1)) {
+            throw new IllegalArgumentException("El estado debe ser 0 o 1.");
+        }
+        if (ids.isEmpty() || ids.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Debe indicar entre 1 y " + MAX_BULK_SIZE + " ids.");
+        }
+        BulkStatusResult<Long> result = userRepository.changeStatus(ids, status);
+        revocationService.tokensRevoked(result.affected());
+        principalCache.invalidateAll(result.affected());
+        if (!result.affected().isEmpty()) {
+            UserChangedEvent.Type type = status == 0 ? UserChangedEvent.Type.DISABLED : UserChangedEvent.Type.ENABLED;
+            events.publishEvent(new UserChangedEvent(type, result.affected(), null));
+        }
+        return result;
+    }
+
+    /**
+     * Carga la entidad gestionada de un usuario activo para modificarla.
+     *
+     * @param id ID del usuario.
+     * @return La entidad del usuario.
+     * @throws IllegalArgumentException Si el usuario no existe o está inactivo.
+     */
+    private User findActive(Long id) {
+        return userRepository.findByIdAndStatus(id, 1)
+                .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado."));
+    }
+
+    /**
+     * Normaliza los estados recibidos; sin estados se consideran solo los activos.
+     *
+     * @param status Estados solicitados.
+     * @return Lista de estados sin nulos ni repetidos.
+     */
+    private List<Integer> normalizeStatus(Integer... status) {
+        if (status == null || status.length == 0) {
+            return List.of(1);
+        }
+        return Arrays.stream(status)
+                .map(s -> s == null ? 1 : s)
+                .distinct()
+                .toList();
     }
 
     /**
@@ -101,14 +245,25 @@ public class UserService implements CrudOptions<User, Long, UserDto, UserDto> {
      * @param req  DTO con los datos a aplicar.
      */
     private void applyPatch(User user, UserDto req) {
-        setIfNonNull(req.name(), user::setName);
-        setIfNonNull(req.email(), user::setEmail);
+        setIfNonNull(req.name(), name -> user.setName(name.trim()));
+        setIfNonNull(req.email(), email -> user.setEmail(email.trim().toLowerCase()));
         setIfNonNull(req.phone(), user::setPhone);
         setIfNonNull(req.password(), password -> user.setPassword(authService.encodePassword(password)) );
     }
 
     /**
-     * Valida que el correo y el nombre de usuario no estén en uso.
+     * Mensajes con los que `GlobalExceptionHandler` traduce las violaciones de las restricciones
+     * únicas de `users` en modo optimista.
+     */
+    @Override
+    public Map<String, String> uniqueConstraintMessages() {
+        return Map.of(User.UQ_NAME, NAME_TAKEN, User.UQ_EMAIL, EMAIL_TAKEN);
+    }
+
+    /**
+     * Valida con una sola consulta que el correo y el nombre de usuario no estén en uso.
+     * En modo optimista (`app.users.uniqueness.optimistic=true`) no se consulta: la restricción única
+     * de la base de datos rechaza el duplicado y `GlobalExceptionHandler` lo traduce al mismo mensaje.
      *
      * @param id    ID del usuario (puede ser nulo para creación).
      * @param email Correo a validar.
@@ -118,17 +273,16 @@ public class UserService implements CrudOptions<User, Long, UserDto, UserDto> {
     private void validateEmailAndUsername(@Nullable Long id, String email, String name) {
         String u = name == null ? null : name.trim();
         String e = email == null ? null : email.trim().toLowerCase();
-
-        if (u != null && (id == null
-                ? userRepository.existsByName(u)
-                : userRepository.existsByNameAndIdNot(u, id))) {
-            throw new IllegalArgumentException("El usuario que ingresó ya existe.");
+        if (optimisticUniqueness || (u == null && e == null)) {
+            return;
         }
 
-        if (e != null && (id == null
-                ? userRepository.existsByEmail(e)
-                : userRepository.existsByEmailAndIdNot(e, id))) {
-            throw new IllegalArgumentException("El correo que ingresó ya existe.");
+        UniquenessClash clash = userRepository.findUniquenessClash(u, e, id);
+        if (clash.nameTaken()) {
+            throw new IllegalArgumentException(NAME_TAKEN);
+        }
+        if (clash.emailTaken()) {
+            throw new IllegalArgumentException(EMAIL_TAKEN);
         }
     }
 
@@ -0,0 +1,39 @@
+package com.ine.development.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ine.development.common.dto.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que la respuesta en streaming de `ResponseFactory.okStream` sea idéntica a la
+ * serialización de un `ApiResponse` con los mismos datos.
+ */
+class ResponseFactoryTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void streamedEnvelopeMatchesApiResponse() throws IOException {
+        List<Map<String, Object>> items = List.of(Map.of("id", 1), Map.of("id", 2));
+
+        assertEquals(mapper.writeValueAsString(ApiResponse.ok("Listado.", items)), stream("Listado.", items));
+        // sin mensaje, el campo se omite igual que en `ApiResponse`
+        assertEquals(mapper.writeValueAsString(ApiResponse.ok(null, List.of())), stream(null, List.of()));
+    }
+
+    private <T> String stream(String message, List<T> items) throws IOException {
+        StreamingResponseBody body = ResponseFactory.<T>okStream(mapper, message, items::forEach).getBody();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ine.development.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la ráfaga y la recarga de `TokenBucketLimiter` con un reloj controlado por la prueba.
+ */
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(1), 100, clock::get);
+
+    @Test
+    void allowsABurstOfCapacityTokens() {
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+
+        assertEquals(SECOND, limiter.tryAcquire("ip"));
+        // un rechazo no consume tokens
+        assertEquals(SECOND, limiter.tryAcquire("ip"));
+        // cada clave tiene su propia cubeta
+        assertEquals(0, limiter.tryAcquire("otra"));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("ip");
+        }
+
+        clock.addAndGet(SECOND / 4);
+        assertEquals(SECOND * 3 / 4, limiter.tryAcquire("ip"));
+
+        clock.addAndGet(SECOND * 3 / 4);
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(SECOND, limiter.tryAcquire("ip"));
+
+        clock.addAndGet(2 * SECOND);
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(SECOND, limiter.tryAcquire("ip"));
+    }
+
+    @Test
+    void idleTimeDoesNotGrowTheBurstBeyondCapacity() {
+        limiter.tryAcquire("ip");
+        clock.addAndGet(60 * SECOND);
+
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(SECOND, limiter.tryAcquire("ip"));
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(0, Duration.ofSeconds(1), 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(1, Duration.ZERO, 10));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ine.development.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el proxy de `ConnectionLimitingDataSource` devuelva el permiso al cerrarse y que ni
+ * `equals`/`hashCode` ni `unwrap` expongan la conexión subyacente.
+ */
+class ConnectionLimitingDataSourceTest {
+
+    private final ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(h2(), 2, 100);
+
+    @Test
+    void closingReleasesThePermitOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.available());
+
+        connection.close();
+        connection.close();
+        assertEquals(2, dataSource.available());
+    }
+
+    @Test
+    void proxiesAreComparedByIdentity() throws SQLException {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertEquals(first, first);
+            assertNotEquals(first, second);
+            assertEquals(System.identityHashCode(first), first.hashCode());
+            assertEquals(2, Set.of(first, second).size());
+        }
+    }
+
+    @Test
+    void unwrappingToConnectionKeepsThePermitTied() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        assertTrue(connection.isWrapperFor(Connection.class));
+        assertSame(connection, connection.unwrap(Connection.class));
+
+        connection.unwrap(Connection.class).close();
+        assertEquals(2, dataSource.available());
+    }
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:permisos;DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+}
@@ -0,0 +1,180 @@
+package com.ine.development.config;
+
+import com.ine.development.models.User;
+import com.ine.development.models.dto.UserDto;
+import com.ine.development.repositories.UserRepository;
+import com.ine.development.services.PrincipalCacheService;
+import com.ine.development.services.UserService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica el enrutamiento de lecturas con dos bases H2 en memoria: la del perfil de pruebas como
+ * primario y una réplica con el mismo esquema pero distintos datos, para saber de dónde se leyó.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replicas.r1.jdbc-url=jdbc:h2:mem:replica;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas.r1.username=sa",
+        "app.datasource.routing.read-your-writes-ms=60000",
+        "app.datasource.routing.health-check-ms=3600000"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingTest {
+
+    private static final long REPLICA_ONLY_ID = 999_999L;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PrincipalCacheService principalCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ReadReplicaRoutingDataSource routing;
+    private JdbcTemplate replica;
+    private long primaryOnlyId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        routing = dataSource.unwrap(ReadReplicaRoutingDataSource.class);
+        JdbcTemplate primary = new JdbcTemplate(dataSource);
+        replica = new JdbcTemplate(routing.replicas().get(0).dataSource());
+        if (routing.replicas().get(0).isHealthy()) {
+            replica.execute("drop all objects");
+            primary.queryForList("script nodata", String.class).stream()
+                    .filter(sql -> !sql.startsWith("--") && !sql.startsWith("CREATE USER"))
+                    .forEach(replica::execute);
+            replica.update("insert into users(id, name, email, phone, password, status, token_epoch, version, created_at, updated_at) " +
+                    "values (?, 'replica', 'replica@ine.gob.gt', '1', 'x', 1, 0, 0, current_timestamp, current_timestamp)", REPLICA_ONLY_ID);
+        }
+        String name = "primario" + System.nanoTime();
+        primaryOnlyId = userService.create(new UserDto(name, name + "@ine.gob.gt", "Secreta123!", "12345678")).getId();
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("replica", userService.findById(REPLICA_ONLY_ID).name());
+        assertThrows(IllegalArgumentException.class, () -> userService.findById(primaryOnlyId));
+    }
+
+    @Test
+    @Order(2)
+    void writerReadsItsOwnWritesFromThePrimary() {
+        authenticate("admin");
+        userService.update(primaryOnlyId, new UserDto(null, null, null, "55550000"));
+
+        assertEquals("55550000", userService.findById(primaryOnlyId).phone());
+        assertThrows(IllegalArgumentException.class, () -> userService.findById(REPLICA_ONLY_ID));
+
+        authenticate("otro");
+        assertEquals("replica", userService.findById(REPLICA_ONLY_ID).name());
+    }
+
+    @Test
+    @Order(3)
+    void principalIsNotLoadedFromAStaleReplica() {
+        replica.update("insert into users(id, name, email, phone, password, status, token_epoch, version, created_at, updated_at) " +
+                "values (?, 'atrasado', 'atrasado@ine.gob.gt', '1', 'x', 1, 0, 0, current_timestamp, current_timestamp)", primaryOnlyId);
+        userService.disable(primaryOnlyId);
+
+        // una lectura en la réplica vuelve a llenar la caché de segundo nivel con el estado anterior
+        assertEquals(1, readOnlyStatus(primaryOnlyId));
+
+        assertFalse(principalCache.get(primaryOnlyId).orElseThrow().isActive());
+        // la carga del principal también reemplazó la entrada atrasada
+        assertEquals(0, readOnlyStatus(primaryOnlyId));
+    }
+
+    private int readOnlyStatus(long id) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Integer status = readOnly.execute(s -> userRepository.findById(id).map(User::getStatus).orElseThrow());
+        return status == null ? -1 : status;
+    }
+
+    @Test
+    @Order(4)
+    void failingReplicaFallsBackToThePrimary() throws SQLException {
+        routing.replicas().get(0).dataSource().unwrap(com.zaxxer.hikari.HikariDataSource.class).close();
+
+        assertEquals(primaryOnlyId, userService.findById(primaryOnlyId).id());
+        assertFalse(routing.replicas().get(0).isHealthy());
+    }
+
+    @Test
+    @Order(5)
+    void healthCheckDoesNotWaitForAHangingReplica() {
+        CountDownLatch release = new CountDownLatch(1);
+        DataSource hanging = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new SQLException("Tiempo de espera agotado.");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+        ReadReplicaRoutingDataSource.Replica replica = new ReadReplicaRoutingDataSource.Replica("lenta", hanging);
+        ReadReplicaRoutingDataSource routing =
+                new ReadReplicaRoutingDataSource(dataSource, List.of(replica), Duration.ofSeconds(5));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            routing.checkReplicas(executor, Duration.ofMillis(200));
+            // el intento anterior sigue pendiente y no se repite
+            routing.checkReplicas(executor, Duration.ofMillis(200));
+
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+            assertFalse(replica.isHealthy());
+            release.countDown();
+        }
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(name, null, List.of()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ine.development.controllers;
+
+import com.ine.development.components.LoginRateLimitFilter;
+import com.ine.development.services.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica que los intentos de inicio de sesión que superan el límite por login o por IP se
+ * respondan `429` con `Retry-After` sin llegar a `AuthService.authenticate`.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:limite;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "security.login.rate-limit.ip.capacity=4",
+        "security.login.rate-limit.ip.per-minute=1",
+        "security.login.rate-limit.login.capacity=2",
+        "security.login.rate-limit.login.per-minute=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerRateLimitTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @SpyBean
+    private AuthService authService;
+
+    @Test
+    void overLimitAttemptsAreRejectedBeforeAuthenticating() throws Exception {
+        authenticated("a@ine.gob.gt").andExpect(status().isUnauthorized());
+        authenticated("a@ine.gob.gt").andExpect(status().isUnauthorized());
+
+        // límite por login, en AuthController
+        login("A@ine.gob.gt")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        verify(authService, times(2)).authenticate(anyString(), anyString());
+
+        authenticated("b@ine.gob.gt").andExpect(status().isUnauthorized());
+
+        // límite por IP, en LoginRateLimitFilter antes de leer el cuerpo
+        login("c@ine.gob.gt")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.success").value(false));
+        verify(authService, times(3)).authenticate(anyString(), anyString());
+    }
+
+    private ResultActions login(String email) throws Exception {
+        // MockMvc deja vacío el servletPath que el filtro compara, y que Tomcat llena con el DispatcherServlet en "/"
+        return mvc.perform(post(LoginRateLimitFilter.LOGIN_PATH)
+                .servletPath(LoginRateLimitFilter.LOGIN_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"incorrecta\"}"));
+    }
+
+    private ResultActions authenticated(String email) throws Exception {
+        MvcResult started = login(email).andExpect(request().asyncStarted()).andReturn();
+        return mvc.perform(asyncDispatch(started));
+    }
+}
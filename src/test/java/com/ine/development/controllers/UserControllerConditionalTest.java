@@ -0,0 +1,114 @@
+package com.ine.development.controllers;
+
+import com.ine.development.models.User;
+import com.ine.development.models.dto.UserDto;
+import com.ine.development.services.JwtService;
+import com.ine.development.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica las peticiones condicionales de `UserController`: `ETag` y `Last-Modified` en la
+ * lectura, `304` con `If-None-Match`, y en la actualización `409` con una versión vencida, `400`
+ * con un `If-Match` débil o mal formado y el nuevo `ETag` al modificar.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:condicional;MODE=MSSQLServer;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerConditionalTest {
+
+    private static final String PHONE_CHANGE = "{\"phone\":\"55550000\"}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String bearer;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String name = "condicional" + System.nanoTime();
+        user = userService.create(new UserDto(name, name + "@ine.gob.gt", "Secreta123!", "12345678"));
+        bearer = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Test
+    void readReturnsTheVersionAndHonoursIfNoneMatch() throws Exception {
+        MvcResult read = mvc.perform(get("/api/v1/users/{id}", user.getId()).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+
+        mvc.perform(get("/api/v1/users/{id}", user.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, read.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mvc.perform(get("/api/v1/users/{id}", user.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateReturnsTheNewVersion() throws Exception {
+        mvc.perform(update("\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+
+        mvc.perform(get("/api/v1/users/{id}", user.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void staleIfMatchIsAConflict() throws Exception {
+        mvc.perform(update("\"0\"")).andExpect(status().isOk());
+
+        mvc.perform(update("\"0\"")).andExpect(status().isConflict());
+        assertEquals("55550000", userService.findById(user.getId()).phone());
+    }
+
+    @Test
+    void weakOrMalformedIfMatchIsABadRequest() throws Exception {
+        for (String ifMatch : new String[]{"W/\"0\"", "0", "\"cero\"", "\""}) {
+            mvc.perform(update(ifMatch))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+        assertEquals(0, userService.findById(user.getId()).version());
+    }
+
+    private RequestBuilder update(String ifMatch) {
+        return put("/api/v1/users/{id}", user.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PHONE_CHANGE);
+    }
+}
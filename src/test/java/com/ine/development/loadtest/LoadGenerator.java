@@ -0,0 +1,104 @@
+package com.ine.development.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Generador de carga de lazo cerrado: `concurrency` clientes en hilos virtuales envían peticiones
+ * sin pausa durante el tiempo indicado, eligiendo cada operación según su peso. La latencia de cada
+ * operación se registra en un histograma HdrHistogram en microsegundos.
+ */
+class LoadGenerator {
+
+    /**
+     * Operación de la carga.
+     *
+     * @param name    nombre en el reporte.
+     * @param weight  peso relativo dentro de la mezcla.
+     * @param request fábrica de la petición a enviar.
+     */
+    record Operation(String name, int weight, Supplier<HttpRequest> request) {}
+
+    private final HttpClient client;
+
+    LoadGenerator(HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Ejecuta la mezcla de operaciones y devuelve el resultado de cada una.
+     *
+     * @param scenario    nombre del escenario.
+     * @param operations  operaciones con sus pesos.
+     * @param concurrency número de clientes simultáneos.
+     * @param duration    duración de la medición.
+     */
+    LoadReport.Scenario run(String scenario, List<Operation> operations, int concurrency, Duration duration)
+            throws InterruptedException {
+        Map<String, Recorder> latencies = new LinkedHashMap<>();
+        Map<String, Map<Integer, LongAdder>> statuses = new LinkedHashMap<>();
+        Map<String, LongAdder> errors = new LinkedHashMap<>();
+        for (Operation op : operations) {
+            latencies.put(op.name(), new Recorder(3));
+            statuses.put(op.name(), new ConcurrentHashMap<>());
+            errors.put(op.name(), new LongAdder());
+        }
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Operation op = pick(operations, totalWeight);
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> res = client.send(op.request().get(), HttpResponse.BodyHandlers.discarding());
+                            statuses.get(op.name()).computeIfAbsent(res.statusCode(), s -> new LongAdder()).increment();
+                        } catch (Exception e) {
+                            errors.get(op.name()).increment();
+                        }
+                        latencies.get(op.name()).recordValue(Math.max(1, (System.nanoTime() - sent) / 1_000));
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<LoadReport.Result> results = new ArrayList<>();
+        for (Operation op : operations) {
+            Map<Integer, Long> codes = new TreeMap<>();
+            statuses.get(op.name()).forEach((code, count) -> codes.put(code, count.sum()));
+            results.add(LoadReport.Result.of(op.name(), latencies.get(op.name()).getIntervalHistogram(),
+                    codes, errors.get(op.name()).sum(), seconds));
+        }
+        return new LoadReport.Scenario(scenario, concurrency, seconds, results);
+    }
+
+    private static Operation pick(List<Operation> operations, int totalWeight) {
+        int r = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation op : operations) {
+            r -= op.weight();
+            if (r < 0) {
+                return op;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+}
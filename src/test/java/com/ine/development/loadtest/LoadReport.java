@@ -0,0 +1,67 @@
+package com.ine.development.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reporte de una ejecución de carga: por escenario y operación, peticiones por segundo,
+ * percentiles de latencia (ms) y códigos de respuesta. Se imprime como tabla y se guarda como
+ * JSON en `target/loadtest/` con la etiqueta de la ejecución, para comparar entre commits.
+ *
+ * @param label     etiqueta de la ejecución (por ejemplo, el hash del commit).
+ * @param users     usuarios sembrados en la base de datos.
+ * @param startedAt inicio de la ejecución.
+ * @param scenarios resultados por escenario.
+ */
+record LoadReport(String label, long users, Instant startedAt, List<Scenario> scenarios) {
+
+    record Scenario(String name, int concurrency, double seconds, List<Result> operations) {}
+
+    record Result(String operation, long requests, double rps, double p50, double p90, double p99,
+                  double p999, double max, Map<Integer, Long> statuses, long errors) {
+
+        static Result of(String operation, Histogram h, Map<Integer, Long> statuses, long errors, double seconds) {
+            return new Result(operation, h.getTotalCount(), h.getTotalCount() / seconds,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), statuses, errors);
+        }
+
+        private static double ms(long micros) {
+            return micros / 1_000.0;
+        }
+    }
+
+    String table() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("%nCarga '%s' con %,d usuarios%n".formatted(label, users));
+        for (Scenario s : scenarios) {
+            sb.append("%n%s (%d clientes, %.1f s)%n".formatted(s.name(), s.concurrency(), s.seconds()));
+            sb.append("%-10s %10s %9s %9s %9s %9s %9s %9s  %s%n".formatted(
+                    "operación", "peticiones", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "códigos"));
+            for (Result r : s.operations()) {
+                sb.append("%-10s %10d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%s%n".formatted(
+                        r.operation(), r.requests(), r.rps(), r.p50(), r.p90(), r.p99(), r.p999(), r.max(),
+                        r.statuses(), r.errors() > 0 ? " errores=" + r.errors() : ""));
+            }
+        }
+        return sb.toString();
+    }
+
+    Path write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve("loadtest-" + label + ".json");
+        new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(file.toFile(), this);
+        return file;
+    }
+}
@@ -0,0 +1,161 @@
+package com.ine.development.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ine.development.services.AuthService;
+import com.ine.development.loadtest.LoadGenerator.Operation;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de extremo a extremo sobre H2 en modo SQL Server. Siembra `loadtest.users`
+ * usuarios sintéticos y ejecuta tres escenarios: tormenta de inicios de sesión, lecturas autenticadas
+ * (por id y por páginas) y una mezcla con actualizaciones concurrentes sobre un conjunto reducido de usuarios.
+ * Está etiquetada `loadtest` y se excluye de `mvn test`; se ejecuta con el perfil `loadtest`:
+ *
+ * ```bash
+ * ./mvnw -Ploadtest test -Dloadtest.users=2000000 -Dloadtest.label=$(git rev-parse --short HEAD)
+ * ```
+ */
+@Tag("loadtest")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.accept-count=10000",
+        "security.login.rate-limit.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.root=WARN"
+})
+class LoadTest {
+
+    private static final String PASSWORD = "loadtest";
+    private static final int HOT_USERS = 100;
+
+    private static final long USERS = Long.getLong("loadtest.users", 1_000_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30));
+    private static final String LABEL = System.getProperty("loadtest.label", "local");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private AuthService authService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private String token;
+
+    /**
+     * Siembra los usuarios con una sola sentencia `INSERT ... SELECT` sobre `SYSTEM_RANGE`, todos con el
+     * mismo hash de contraseña, y ajusta la secuencia para que las inserciones de la aplicación no choquen.
+     */
+    @BeforeAll
+    void seed() throws Exception {
+        String hash = authService.encodePassword(PASSWORD);
+        long start = System.nanoTime();
+        jdbc.update("""
+                insert into users (id, name, email, phone, password, status, token_epoch, version, created_at, updated_at)
+                select x, concat('user', x), concat('user', x, '@load.test'), '55550000', ?, 1, 0, 0,
+                       current_timestamp, current_timestamp
+                from system_range(1, ?)
+                """, hash, USERS);
+        jdbc.execute("alter sequence users_seq restart with " + (USERS + 100));
+        System.out.printf("Sembrados %,d usuarios en %.1f s%n", USERS, (System.nanoTime() - start) / 1e9);
+        token = login("user1@load.test");
+    }
+
+    @Test
+    void mixedWorkloads() throws Exception {
+        LoadGenerator generator = new LoadGenerator(client);
+        List<LoadReport.Scenario> scenarios = new ArrayList<>();
+
+        scenarios.add(generator.run("login-storm", List.of(
+                new Operation("login", 1, () -> loginRequest("user" + randomId() + "@load.test"))
+        ), CONCURRENCY, DURATION));
+
+        scenarios.add(generator.run("reads", List.of(
+                new Operation("getById", 7, () -> get("/api/v1/users/" + randomId())),
+                new Operation("listPage", 3, () -> get("/api/v1/users?limit=50&after=" + randomId()))
+        ), CONCURRENCY, DURATION));
+
+        scenarios.add(generator.run("mixed", List.of(
+                new Operation("getById", 60, () -> get("/api/v1/users/" + randomId())),
+                new Operation("listPage", 20, () -> get("/api/v1/users?limit=50&after=" + randomId())),
+                new Operation("update", 15, () -> update(1 + ThreadLocalRandom.current().nextInt(HOT_USERS))),
+                new Operation("login", 5, () -> loginRequest("user" + randomId() + "@load.test"))
+        ), CONCURRENCY, DURATION));
+
+        LoadReport report = new LoadReport(LABEL, USERS, Instant.now(), scenarios);
+        System.out.println(report.table());
+        Path file = report.write(Path.of("target", "loadtest"));
+        System.out.println("Reporte: " + file.toAbsolutePath());
+
+        assertTrue(scenarios.stream().flatMap(s -> s.operations().stream()).allMatch(r -> r.requests() > 0),
+                "Todas las operaciones deben haber recibido respuesta");
+    }
+
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextLong(USERS);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest update(long id) {
+        String body = "{\"phone\":\"" + (10_000_000 + ThreadLocalRandom.current().nextInt(89_999_999)) + "\"}";
+        return HttpRequest.newBuilder(uri("/api/v1/users/" + id))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest loginRequest(String email) {
+        return HttpRequest.newBuilder(uri("/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+    }
+
+    private String login(String email) throws Exception {
+        HttpResponse<String> res = client.send(loginRequest(email), HttpResponse.BodyHandlers.ofString());
+        JsonNode body = mapper.readTree(res.body());
+        return body.path("data").path("token").asText();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,162 @@
+package com.ine.development.services;
+
+import com.ine.development.DevelopmentApplication;
+import com.ine.development.models.User;
+import com.ine.development.models.dto.UserDto;
+import com.ine.development.repositories.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Levanta dos contextos de la aplicación sobre la misma base H2 en memoria, como dos instancias
+ * de un clúster, y verifica que las escrituras de una invaliden las cachés de la otra al leer el
+ * registro de invalidaciones. La lectura periódica se desactiva para invocarla de forma explícita.
+ */
+class CacheInvalidationBusTest {
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void start() {
+        writer = start("create");
+        reader = start("none");
+    }
+
+    @AfterAll
+    static void stop() {
+        reader.close();
+        writer.close();
+    }
+
+    private static ConfigurableApplicationContext start(String ddl) {
+        return new SpringApplicationBuilder(DevelopmentApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:cluster;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=" + ddl,
+                        "--app.cache.invalidation.enabled=true",
+                        "--app.cache.invalidation.poll-ms=3600000",
+                        "--app.cache.invalidation.prune-ms=3600000");
+    }
+
+    @Test
+    void writesOnOneNodeEvictTheCachesOfTheOther() {
+        UserService users = writer.getBean(UserService.class);
+        PrincipalCacheService principals = reader.getBean(PrincipalCacheService.class);
+        UnknownLoginCache unknownLogins = reader.getBean(UnknownLoginCache.class);
+        UserRepository repository = reader.getBean(UserRepository.class);
+        CacheInvalidationBus bus = reader.getBean(CacheInvalidationBus.class);
+
+        unknownLogins.markUnknown("nodo@ine.gob.gt");
+        Long id = users.create(new UserDto("nodo", "nodo@ine.gob.gt", "Secreta123!", "12345678")).getId();
+        assertTrue(principals.get(id).orElseThrow().isActive());
+        assertEquals("12345678", repository.findById(id).map(User::getPhone).orElseThrow());
+
+        users.update(id, new UserDto(null, null, null, "55550000"));
+        users.disable(id);
+
+        // antes de leer el registro, la otra instancia aún sirve los valores cacheados
+        assertTrue(unknownLogins.isUnknown("nodo@ine.gob.gt"));
+        assertTrue(principals.get(id).orElseThrow().isActive());
+        assertEquals("12345678", repository.findById(id).map(User::getPhone).orElseThrow());
+
+        bus.poll();
+
+        assertFalse(unknownLogins.isUnknown("nodo@ine.gob.gt"));
+        assertFalse(principals.get(id).orElseThrow().isActive());
+        assertEquals("55550000", repository.findById(id).map(User::getPhone).orElseThrow());
+        assertTrue(reader.getBean(MeterRegistry.class).get("app.cache.invalidation.lag").timer().count() > 0);
+    }
+
+    @Test
+    void changesMadeOnOneNodeReachTheSubscribersOfTheOther() throws Exception {
+        UserService users = writer.getBean(UserService.class);
+        User subscriber = users.create(new UserDto("oyente", "oyente@ine.gob.gt", "Secreta123!", "12345678"));
+        Long first = users.create(new UserDto("remoto1", "remoto1@ine.gob.gt", "Secreta123!", "12345678")).getId();
+        Long second = users.create(new UserDto("remoto2", "remoto2@ine.gob.gt", "Secreta123!", "12345678")).getId();
+        reader.getBean(CacheInvalidationBus.class).poll();
+
+        String token = reader.getBean(JwtService.class).generateToken(subscriber);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                        + reader.getEnvironment().getProperty("local.server.port") + "/api/v1/users/events"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        HttpClient client = HttpClient.newHttpClient();
+        // el flujo no termina: close() esperaría su fin
+        try {
+            CompletableFuture<HttpResponse<Stream<String>>> pending =
+                    client.sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+            // los encabezados se envían con el primer evento, así que se espera a que el suscriptor se registre
+            Gauge subscribers = reader.getBean(MeterRegistry.class).get("app.users.events.subscribers").gauge();
+            for (int i = 0; i < 100 && subscribers.value() == 0; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, subscribers.value());
+
+            users.changeStatus(List.of(first, second), 0);
+            users.changeStatus(List.of(first), 1);
+            reader.getBean(CacheInvalidationBus.class).poll();
+
+            HttpResponse<Stream<String>> response = pending.get(10, TimeUnit.SECONDS);
+            assertEquals(200, response.statusCode());
+            Thread.ofVirtual().start(() -> response.body().forEach(lines::add));
+
+            assertEquals("event:disabled", nextEvent(lines));
+            assertTrue(nextData(lines).contains("\"ids\":[" + first + "," + second + "]"));
+            assertEquals("event:enabled", nextEvent(lines));
+            assertTrue(nextData(lines).contains("\"ids\":[" + first + "]"));
+        } finally {
+            client.shutdownNow();
+        }
+    }
+
+    private static String nextEvent(BlockingQueue<String> lines) throws InterruptedException {
+        return next(lines, "event:");
+    }
+
+    private static String nextData(BlockingQueue<String> lines) throws InterruptedException {
+        return next(lines, "data:");
+    }
+
+    private static String next(BlockingQueue<String> lines, String prefix) throws InterruptedException {
+        String line;
+        do {
+            line = lines.poll(10, TimeUnit.SECONDS);
+            assertNotNull(line, "no llegó " + prefix);
+        } while (!line.startsWith(prefix));
+        return line;
+    }
+
+    @Test
+    void ownInvalidationsAreNotReapplied() {
+        UserService users = writer.getBean(UserService.class);
+        CacheInvalidationBus bus = writer.getBean(CacheInvalidationBus.class);
+        MeterRegistry registry = writer.getBean(MeterRegistry.class);
+        long before = registry.get("app.cache.invalidation.lag").timer().count();
+
+        users.create(new UserDto("propio", "propio@ine.gob.gt", "Secreta123!", "12345678"));
+        bus.poll();
+
+        assertEquals(before, registry.get("app.cache.invalidation.lag").timer().count());
+    }
+}
@@ -0,0 +1,47 @@
+package com.ine.development.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que `LoginRateLimiter` redondee hacia arriba `Retry-After`, normalice el login y
+ * cuente los rechazos.
+ */
+class LoginRateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void retryAfterIsRoundedUpToWholeSeconds() {
+        // 7 intentos por minuto: un token cada 8,57 s
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 1, 7, 1, 1, 100, registry);
+        limiter.checkIp("10.0.0.1");
+
+        LoginRateLimitedException e = assertThrows(LoginRateLimitedException.class, () -> limiter.checkIp("10.0.0.1"));
+        assertEquals(9, e.getRetryAfterSeconds());
+        assertEquals(1, registry.get("security.login.rate-limited").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void retryAfterOfAFullIntervalIsNotRoundedPastIt() {
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 1, 60, 1, 1, 100, registry);
+        limiter.checkLogin("usuario@ine.gob.gt");
+
+        // falta poco menos de un minuto: se redondea a 60, no a 61
+        LoginRateLimitedException e = assertThrows(LoginRateLimitedException.class, () -> limiter.checkLogin(" USUARIO@ine.gob.gt "));
+        assertEquals(60, e.getRetryAfterSeconds());
+        assertEquals(1, registry.get("security.login.rate-limited").tag("key", "login").counter().count());
+    }
+
+    @Test
+    void disabledLimiterNeverRejects() {
+        LoginRateLimiter limiter = new LoginRateLimiter(false, 1, 1, 1, 1, 100, registry);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.checkIp("10.0.0.1");
+            limiter.checkLogin("usuario");
+        }
+    }
+}
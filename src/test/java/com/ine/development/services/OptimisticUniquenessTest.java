@@ -0,0 +1,62 @@
+package com.ine.development.services;
+
+import com.ine.development.common.GlobalExceptionHandler;
+import com.ine.development.common.dto.ApiResponse;
+import com.ine.development.models.dto.UserDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica el modo optimista de la validación de unicidad: sin la consulta previa, la restricción
+ * única rechaza el `INSERT` y `GlobalExceptionHandler` la traduce al mismo error por campo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:unicidad;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "app.users.uniqueness.optimistic=true"
+})
+@ActiveProfiles("test")
+class OptimisticUniquenessTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private GlobalExceptionHandler exceptionHandler;
+
+    @Test
+    void duplicatesAreRejectedByTheConstraints() {
+        // las dos primeras inserciones reservan el bloque de ids de la secuencia
+        userService.create(new UserDto("reserva", "reserva@ine.gob.gt", "Secreta123!", "1"));
+        userService.create(new UserDto("optimista", "optimista@ine.gob.gt", "Secreta123!", "1"));
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        DataIntegrityViolationException sameName = assertThrows(DataIntegrityViolationException.class,
+                () -> userService.create(new UserDto("optimista", "otro.optimista@ine.gob.gt", "Secreta123!", "1")));
+        // solo el INSERT rechazado, sin la consulta de unicidad
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertBadRequest(UserService.NAME_TAKEN, exceptionHandler.handleDataIntegrity(sameName));
+
+        DataIntegrityViolationException sameEmail = assertThrows(DataIntegrityViolationException.class,
+                () -> userService.create(new UserDto("otro.optimista", "optimista@ine.gob.gt", "Secreta123!", "1")));
+        assertBadRequest(UserService.EMAIL_TAKEN, exceptionHandler.handleDataIntegrity(sameEmail));
+    }
+
+    private static void assertBadRequest(String message, ResponseEntity<ApiResponse<Void>> response) {
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(message, response.getBody().getMessage());
+    }
+}
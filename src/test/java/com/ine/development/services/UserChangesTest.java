@@ -0,0 +1,110 @@
+package com.ine.development.services;
+
+import com.ine.development.common.dto.ChangeSet;
+import com.ine.development.common.dto.Watermark;
+import com.ine.development.models.dto.UserDto;
+import com.ine.development.models.dto.UserView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la sincronización incremental: el desempate por id de los usuarios modificados en el
+ * mismo instante, la omisión de los cambios más recientes que `safety-lag-ms` y el rechazo de las
+ * marcas de agua mal formadas. Las fechas de actualización se fijan con SQL para controlarlas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cambios;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "app.users.changes.safety-lag-ms=60000"
+})
+@ActiveProfiles("test")
+class UserChangesTest {
+
+    private static final LocalDateTime INSTANT = LocalDateTime.of(2026, 1, 15, 10, 30, 0, 123_456_000);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from users");
+    }
+
+    @Test
+    void rowsSharingAnInstantAreSplitByIdAcrossPages() {
+        Long first = create("empate1");
+        Long second = create("empate2");
+        Long third = create("empate3");
+        Long later = create("empate4");
+        setUpdatedAt(INSTANT, first, second, third);
+        setUpdatedAt(INSTANT.plusNanos(1_000), later);
+
+        ChangeSet<UserView> page = userService.findChanges(null, 2);
+        assertEquals(List.of(first, second), ids(page));
+        assertTrue(page.hasMore());
+        assertEquals(new Watermark<>(INSTANT, second).toString(), page.watermark());
+
+        // el límite de la página cae entre dos usuarios con la misma fecha
+        page = userService.findChanges(page.watermark(), 2);
+        assertEquals(List.of(third, later), ids(page));
+        assertFalse(page.hasMore());
+
+        String watermark = page.watermark();
+        page = userService.findChanges(watermark, 2);
+        assertEquals(List.of(), page.items());
+        assertEquals(watermark, page.watermark());
+    }
+
+    @Test
+    void changesNewerThanTheSafetyLagAreDeferred() {
+        Long old = create("atrasado");
+        Long recent = create("reciente");
+        setUpdatedAt(LocalDateTime.now().minusMinutes(2), old);
+
+        ChangeSet<UserView> page = userService.findChanges(null, 10);
+        assertEquals(List.of(old), ids(page));
+        assertFalse(page.hasMore());
+
+        // pasado el margen, el cambio se entrega en la siguiente sincronización
+        setUpdatedAt(LocalDateTime.now().minusSeconds(61), recent);
+        page = userService.findChanges(page.watermark(), 10);
+        assertEquals(List.of(recent), ids(page));
+    }
+
+    @Test
+    void malformedWatermarksAreRejected() {
+        for (String since : List.of("", "_", "ayer", "ayer_5", "_5", "2026-01-15T10:30", "2026-01-15T10:30_",
+                "2026-01-15T10:30_x", "2026-13-15T10:30_5", "2026-01-15 10:30_5")) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> userService.findChanges(since, 10), since);
+            assertEquals("Marca de agua inválida.", e.getMessage());
+        }
+        assertEquals(new Watermark<>(INSTANT, 25L), Watermark.parse(new Watermark<>(INSTANT, 25L).toString(), Long::valueOf));
+        assertThrows(IllegalArgumentException.class, () -> userService.findChanges(null, 0));
+    }
+
+    private Long create(String name) {
+        return userService.create(new UserDto(name, name + "@ine.gob.gt", "Secreta123!", "12345678")).getId();
+    }
+
+    private void setUpdatedAt(LocalDateTime updatedAt, Long... ids) {
+        for (Long id : ids) {
+            jdbc.update("update users set updated_at = ? where id = ?", updatedAt, id);
+        }
+    }
+
+    private static List<Long> ids(ChangeSet<UserView> page) {
+        return page.items().stream().map(UserView::id).toList();
+    }
+}
@@ -0,0 +1,162 @@
+package com.ine.development.services;
+
+import com.ine.development.models.dto.ImportReport;
+import com.ine.development.models.dto.ImportRowResult;
+import com.ine.development.models.dto.UserDto;
+import com.ine.development.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la lectura de CSV y NDJSON, el resultado de cada fila, los eventos de cada bloque y
+ * que una importación detenida a mitad del archivo devuelva el reporte de los bloques ya confirmados.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importacion;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "app.users.import.max-rows=6",
+        "app.users.import.chunk-size=2"
+})
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class UserImportServiceTest {
+
+    private static final MediaType CSV = MediaType.parseMediaType(UserImportService.TEXT_CSV);
+    private static final MediaType NDJSON = MediaType.APPLICATION_NDJSON;
+
+    @Autowired
+    private UserImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void csvRowsAreReportedOneByOne() throws IOException {
+        userService.create(new UserDto("csvexistente", "csvexistente@ine.gob.gt", "Secreta123!", "12345678"));
+
+        ImportReport report = importService.importUsers(stream("""
+                phone,email,name,password
+                12345678,csv1@ine.gob.gt,csv1,"Secreta,123"
+                12345678,csv2@ine.gob.gt,csv2
+                ,csv3@ine.gob.gt,csv3,Secreta123!
+
+                12345678,CSV4@ine.gob.gt, csv4 ,Secreta123!
+                12345678,otro@ine.gob.gt,CSV4,Secreta123!
+                12345678,csvexistente@ine.gob.gt,csv5,Secreta123!
+                """), CSV);
+
+        assertFalse(report.truncated());
+        assertEquals(6, report.total());
+        assertEquals(2, report.created());
+        List<ImportRowResult> rows = report.rows();
+        assertTrue(rows.get(0).created());
+        assertEquals("La fila tiene 3 columnas y se esperaban 4.", rows.get(1).message());
+        assertTrue(rows.get(2).message().startsWith("phone: "));
+        assertTrue(rows.get(3).created());
+        assertEquals("El usuario está repetido en el archivo.", rows.get(4).message());
+        assertEquals(UserService.EMAIL_TAKEN, rows.get(5).message());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), rows.stream().map(ImportRowResult::row).toList());
+
+        assertEquals("csv4@ine.gob.gt", userRepository.findById(rows.get(3).id()).orElseThrow().getEmail());
+        assertEquals("csv4", userRepository.findById(rows.get(3).id()).orElseThrow().getName());
+    }
+
+    @Test
+    void csvHeaderMustNameEveryColumn() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importUsers(stream("name,email,password\n"), CSV));
+    }
+
+    @Test
+    void ndjsonRowsAreReportedOneByOne() throws IOException {
+        ImportReport report = importService.importUsers(stream("""
+                {"name":"json1","email":"json1@ine.gob.gt","password":"Secreta123!","phone":"12345678"}
+                {"name":"json2",
+                {"name":"json3","email":"json3@ine.gob.gt","password":"ab","phone":"12345678"}
+                """), NDJSON);
+
+        assertEquals(3, report.total());
+        assertEquals(1, report.created());
+        assertTrue(userRepository.findByName("json1").isPresent());
+        assertEquals("JSON inválido o mal formado.", report.rows().get(1).message());
+        assertEquals("password: El campo password debe tener al menos 3 caracteres", report.rows().get(2).message());
+    }
+
+    @Test
+    void eachCommittedChunkPublishesTheCreatedIds() throws IOException {
+        ImportReport report = importService.importUsers(stream("""
+                {"name":"evento1","email":"evento1@ine.gob.gt","password":"Secreta123!","phone":"1"}
+                {"name":"evento2","email":"evento2@ine.gob.gt","password":"Secreta123!","phone":"1"}
+                {"name":"evento3","email":"evento3@ine.gob.gt","password":"Secreta123!","phone":"1"}
+                """), NDJSON);
+
+        List<UserChangedEvent> published = events.stream(UserChangedEvent.class).toList();
+        assertEquals(2, published.size());
+        assertTrue(published.stream().allMatch(e -> e.type() == UserChangedEvent.Type.CREATED && e.user() == null));
+        assertEquals(report.rows().stream().map(ImportRowResult::id).toList(),
+                published.stream().flatMap(e -> e.ids().stream()).toList());
+        assertEquals(List.of(2, 1), published.stream().map(e -> e.ids().size()).toList());
+    }
+
+    @Test
+    void stopsAtTheRowLimitAndReturnsTheReport() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 8; i++) {
+            body.append("{\"name\":\"limite%d\",\"email\":\"limite%d@ine.gob.gt\",\"password\":\"Secreta123!\",\"phone\":\"1\"}\n"
+                    .formatted(i, i));
+        }
+
+        ImportReport report = importService.importUsers(stream(body.toString()), NDJSON);
+
+        assertTrue(report.truncated());
+        assertNotNull(report.reason());
+        assertEquals(6, report.total());
+        assertEquals(6, report.created());
+        assertTrue(userRepository.findByName("limite6").isPresent());
+        assertFalse(userRepository.findByName("limite7").isPresent());
+    }
+
+    @Test
+    void readErrorKeepsTheRowsAlreadyImported() throws IOException {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("conexión cerrada");
+            }
+        };
+        InputStream body = new SequenceInputStream(stream("""
+                {"name":"lectura1","email":"lectura1@ine.gob.gt","password":"Secreta123!","phone":"1"}
+                {"name":"lectura2","email":"lectura2@ine.gob.gt","password":"Secreta123!","phone":"1"}
+                {"name":"lectura3","email":"lectura3@ine.gob.gt","password":"Secreta123!","phone":"1"}
+                """), failing);
+
+        ImportReport report = importService.importUsers(body, NDJSON);
+
+        assertTrue(report.truncated());
+        assertEquals(3, report.created());
+        assertTrue(userRepository.findByName("lectura3").isPresent());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+package com.ine.development.services;
+
+import com.ine.development.common.dto.BulkStatusResult;
+import com.ine.development.models.User;
+import com.ine.development.models.dto.UserDto;
+import com.ine.development.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica cuántas sentencias SQL emite cada escritura de UserService.
+ * Los valores generados (estado, fechas) se calculan al insertar o actualizar,
+ * por lo que ninguna escritura vuelve a leer la fila.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceStatementCountTest {
+
+    private static final AtomicInteger WARMUPS = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        // Reserva el bloque de ids de la secuencia para que no se cuente en las mediciones.
+        userService.create(newUser("warmup" + WARMUPS.incrementAndGet()));
+        stats.clear();
+    }
+
+    @Test
+    void createIssuesOnlyValidationAndInsert() {
+        User created = userService.create(newUser("create"));
+
+        // 1 consulta de unicidad + 1 INSERT
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertEquals(1, created.getStatus());
+        assertNotNull(created.getCreatedAt());
+        assertNotNull(created.getUpdatedAt());
+    }
+
+    @Test
+    void updateDoesNotRefreshTheRow() {
+        User created = userService.create(newUser("update"));
+        stats.clear();
+
+        User updated = userService.update(created.getId(), new UserDto(null, null, null, "55550000"));
+
+        // SELECT de la entidad + 1 UPDATE
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertEquals("55550000", updated.getPhone());
+        assertNotNull(updated.getUpdatedAt());
+    }
+
+    @Test
+    void disableIsASingleUpdate() {
+        User created = userService.create(newUser("disable"));
+        stats.clear();
+
+        userService.disable(created.getId());
+
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+        assertThrows(IllegalArgumentException.class, () -> userService.findById(created.getId()));
+    }
+
+    @Test
+    void bulkStatusChangeIsOneUpdatePerChunk() {
+        Long first = userService.create(newUser("bulk1")).getId();
+        Long second = userService.create(newUser("bulk2")).getId();
+        Long missing = Long.MAX_VALUE;
+        stats.clear();
+
+        BulkStatusResult<Long> result = userService.changeStatus(List.of(first, second, second, missing), 0);
+
+        // SELECT de los ids a cambiar + 1 UPDATE + SELECT de los ids existentes
+        assertEquals(3, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+        assertEquals(List.of(first, second), result.affected());
+        assertEquals(List.of(missing), result.missing());
+        assertThrows(IllegalArgumentException.class, () -> userService.findById(first));
+        assertEquals(1, userRepository.findTokenEpochById(first).orElseThrow());
+
+        assertEquals(List.of(), userService.changeStatus(List.of(first), 0).affected());
+        assertEquals(List.of(first), userService.changeStatus(List.of(first), 1).affected());
+        assertEquals(first, userService.findById(first).id());
+    }
+
+    private static UserDto newUser(String name) {
+        return new UserDto(name, name + "@ine.gob.gt", "Secreta123!", "12345678");
+    }
+}